@@ -0,0 +1,270 @@
+package winterwell.jtwitter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+
+import oauth.signpost.http.HttpRequest;
+
+/**
+ * Sends the REST calls of a {@link URLConnectionHttpClient} (including an
+ * {@link OAuthSignpostClient}) over java.net.http, instead of opening and
+ * tearing down an HttpURLConnection per call. Connections are pooled and kept
+ * alive per host, and requests to the same host are multiplexed over one
+ * HTTP/2 connection, so most calls skip the TCP and TLS handshakes.
+ * <p>
+ * Signing, error handling and rate-limit bookkeeping are still done by the
+ * client, exactly as they are for HttpURLConnection. Streaming and multipart
+ * uploads are unaffected.
+ * <p>
+ * Thread safe. One transport can (and should) be shared by many clients.
+ * <p>
+ * This needs Java 11, so it is kept apart from the rest of the library (which
+ * still builds on Java 8), and is best obtained with
+ * {@link HttpTransport#javaNetHttp()}, which returns null on older JVMs.
+ * <p>
+ * Example Usage:
+ *
+ * <pre>
+ * <code>
+ * 	OAuthSignpostClient client = new OAuthSignpostClient(KEY, SECRET, TOKEN, TOKEN_SECRET);
+ * 	client.setTransport(HttpTransport.javaNetHttp());
+ * 	Twitter jtwit = new Twitter("yourtwittername", client);
+ * 	</code>
+ * </pre>
+ *
+ * @see URLConnectionHttpClient#setTransport(HttpTransport)
+ */
+public class JavaNetHttpTransport implements HttpTransport {
+
+	private final HttpClient http;
+
+	public JavaNetHttpTransport() {
+		this(HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				// redirects are reported as errors, as they are with HttpURLConnection
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build());
+	}
+
+	/**
+	 * @param http
+	 *            Use this to set your own executor, proxy or SSL context.
+	 *            Should not follow redirects.
+	 */
+	public JavaNetHttpTransport(HttpClient http) {
+		this.http = http;
+	}
+
+	public HttpClient getHttpClient() {
+		return http;
+	}
+
+	@Override
+	public HttpResult send(URLConnectionHttpClient client, String method, String url,
+			Map<String, String> vars, boolean authenticate,
+			Map<String, String> requestHeaders) throws IOException {
+		Call call = new Call(client, method, url, vars, authenticate, requestHeaders);
+		HttpResponse<byte[]> response;
+		try {
+			response = http.send(call.build(), BodyHandlers.ofByteArray());
+		} catch (HttpTimeoutException e) {
+			throw timeout(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.toString());
+		}
+		return call.process(response);
+	}
+
+	@Override
+	public CompletableFuture<HttpResult> sendAsync(URLConnectionHttpClient client,
+			String method, String url, Map<String, String> vars,
+			boolean authenticate, Map<String, String> requestHeaders) {
+		Call call;
+		try {
+			call = new Call(client, method, url, vars, authenticate, requestHeaders);
+		} catch (RuntimeException e) {
+			// eg. a pre-emptive rate limit
+			CompletableFuture<HttpResult> failed = new CompletableFuture<HttpResult>();
+			failed.completeExceptionally(e);
+			return failed;
+		}
+		return http.sendAsync(call.build(), BodyHandlers.ofByteArray())
+				.handle((response, ex) -> {
+					if (ex == null) return call.process(response);
+					while (ex instanceof CompletionException && ex.getCause() != null) {
+						ex = ex.getCause();
+					}
+					throw new CompletionException(
+							ex instanceof HttpTimeoutException ? timeout((HttpTimeoutException) ex) : ex);
+				});
+	}
+
+	/**
+	 * The client knows HttpURLConnection's timeouts, and turns them into
+	 * {@link TwitterException.Timeout}.
+	 */
+	private static SocketTimeoutException timeout(HttpTimeoutException e) {
+		SocketTimeoutException ste = new SocketTimeoutException(e.getMessage());
+		ste.initCause(e);
+		return ste;
+	}
+
+	/**
+	 * One request: built and signed up front, then checked by the client when
+	 * the response arrives. Also serves as the request Signpost signs.
+	 */
+	private static final class Call implements HttpRequest {
+		private final URLConnectionHttpClient client;
+		private final String method;
+		private final String resource;
+		private String url;
+		private final String payload;
+		private final Map<String, String> headers = new LinkedHashMap<String, String>();
+		private long start;
+
+		Call(URLConnectionHttpClient client, String method, String url,
+				Map<String, String> vars, boolean authenticate,
+				Map<String, String> requestHeaders) {
+			this.client = client;
+			this.method = method;
+			// Stop early to protect limits?
+			resource = client.checkRateLimit(url);
+			boolean post = "POST".equals(method);
+			this.url = post ? url : URLConnectionHttpClient.getUrl(url, vars);
+			payload = post ? client.post2_getPayload(vars) : null;
+			headers.put("User-Agent", "JTwitter/" + Twitter.version);
+			if (client.isGzip()) {
+				headers.put("Accept-Encoding", "gzip");
+			}
+			if (post) {
+				headers.put("Content-Type", "application/x-www-form-urlencoded");
+			}
+			if (requestHeaders != null) {
+				headers.putAll(requestHeaders);
+			}
+			if (authenticate) {
+				client.setAuthentication(this);
+			}
+		}
+
+		java.net.http.HttpRequest build() {
+			start = System.nanoTime();
+			java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest
+					.newBuilder(URI.create(url))
+					.timeout(Duration.ofMillis(client.timeout));
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				builder.header(header.getKey(), header.getValue());
+			}
+			if (payload != null) {
+				builder.POST(BodyPublishers.ofString(payload, StandardCharsets.UTF_8));
+			} else {
+				builder.GET();
+			}
+			return builder.build();
+		}
+
+		HttpResult process(HttpResponse<byte[]> response) {
+			// HTTP/2 header names are lower-case. getHeader() allows for that.
+			Map<String, List<String>> responseHeaders = new HashMap<String, List<String>>();
+			for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+				responseHeaders.put(header.getKey(), new ArrayList<String>(header.getValue()));
+			}
+			String body;
+			try {
+				body = read(response, responseHeaders);
+			} catch (IOException e) {
+				throw new TwitterException.IO(e);
+			}
+			int code = response.statusCode();
+			// 304 is the answer to a conditional GET from the HttpCache
+			if (code != 200 && code != 304) {
+				String error = URLConnectionHttpClient.processError2_reason(
+						body.isEmpty() ? null : body, null, responseHeaders);
+				try {
+					client.processError(code, new URL(url), error, responseHeaders, resource);
+				} catch (IOException e) {
+					throw new TwitterException(e);
+				}
+			}
+			RateLimit rateLimit = client.processHeaders(responseHeaders, resource);
+			return new HttpResult(url, code, responseHeaders, resource, rateLimit,
+					(System.nanoTime() - start) / 1000000, body);
+		}
+
+		private static String read(HttpResponse<byte[]> response,
+				Map<String, List<String>> responseHeaders) throws IOException {
+			byte[] bytes = response.body();
+			if ("gzip".equals(URLConnectionHttpClient.getHeader(responseHeaders, "Content-Encoding"))) {
+				return InternalUtils.read(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		@Override
+		public String getMethod() {
+			return method;
+		}
+
+		@Override
+		public String getRequestUrl() {
+			return url;
+		}
+
+		@Override
+		public void setRequestUrl(String url) {
+			this.url = url;
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			headers.put(name, value);
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return headers.get(name);
+		}
+
+		@Override
+		public Map<String, String> getAllHeaders() {
+			return headers;
+		}
+
+		@Override
+		public InputStream getMessagePayload() throws IOException {
+			return payload == null ? null : new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String getContentType() {
+			return headers.get("Content-Type");
+		}
+
+		@Override
+		public Object unwrap() {
+			return this;
+		}
+	}
+}
@@ -16,7 +16,8 @@ package oauth.signpost;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.Random;
+import java.io.ObjectInputStream;
+import java.util.concurrent.ThreadLocalRandom;
 
 import oauth.signpost.basic.UrlStringRequestAdapter;
 import oauth.signpost.exception.OAuthCommunicationException;
@@ -33,6 +34,12 @@ import oauth.signpost.signature.SigningStrategy;
 /**
  * ABC for consumer implementations. If you're developing a custom consumer you
  * will probably inherit from this class to save you a lot of work.
+ * <p>
+ * Signing is reentrant: each call collects its parameters into its own
+ * {@link HttpParameters}, so one consumer can sign requests on many threads at
+ * once without them waiting for each other. Changing the consumer's settings
+ * (token, signer, strategy) while other threads are signing is safe, but a
+ * request being signed at that moment may use either the old or new setting.
  *
  * @author Matthias Kaeppler
  */
@@ -42,22 +49,21 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
 
     private String consumerKey, consumerSecret;
 
-    private String token;
+    private volatile String token;
 
-    private OAuthMessageSigner messageSigner;
+    private volatile OAuthMessageSigner messageSigner;
 
-    private SigningStrategy signingStrategy;
+    private volatile SigningStrategy signingStrategy;
 
     // these are params that may be passed to the consumer directly (i.e.
     // without going through the request object)
-    private HttpParameters additionalParameters;
+    private volatile HttpParameters additionalParameters;
 
-    // these are the params which will be passed to the message signer
-    private HttpParameters requestParameters;
+    // the params which were passed to the message signer, by the last call to
+    // sign() on each thread
+    private transient ThreadLocal<HttpParameters> requestParameters = new ThreadLocal<HttpParameters>();
     
-    private boolean sendEmptyTokens;
-    
-    final private Random random = new Random(System.nanoTime());
+    private volatile boolean sendEmptyTokens;
 
     public AbstractOAuthConsumer(String consumerKey, String consumerSecret) {
         this.consumerKey = consumerKey;
@@ -79,8 +85,14 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
         this.additionalParameters = additionalParameters;
     }
 
-    public synchronized HttpRequest sign(HttpRequest request) throws OAuthMessageSignerException,
+    public HttpRequest sign(HttpRequest request) throws OAuthMessageSignerException,
             OAuthExpectationFailedException, OAuthCommunicationException {
+        return sign(request, signingStrategy);
+    }
+
+    private HttpRequest sign(HttpRequest request, SigningStrategy strategy)
+            throws OAuthMessageSignerException, OAuthExpectationFailedException,
+            OAuthCommunicationException {
         if (consumerKey == null) {
             throw new OAuthExpectationFailedException("consumer key not set");
         }
@@ -88,7 +100,8 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
             throw new OAuthExpectationFailedException("consumer secret not set");
         }
 
-        requestParameters = new HttpParameters();
+        // local to this call, so concurrent calls don't share state
+        HttpParameters requestParameters = new HttpParameters();
         try {
             if (additionalParameters != null) {
                 requestParameters.putAll(additionalParameters, false);
@@ -109,29 +122,24 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
         String signature = messageSigner.sign(request, requestParameters);
         OAuth.debugOut("signature", signature);
 
-        signingStrategy.writeSignature(signature, request, requestParameters);
+        strategy.writeSignature(signature, request, requestParameters);
         OAuth.debugOut("Request URL", request.getRequestUrl());
 
+        this.requestParameters.set(requestParameters);
         return request;
     }
 
-    public synchronized HttpRequest sign(Object request) throws OAuthMessageSignerException,
+    public HttpRequest sign(Object request) throws OAuthMessageSignerException,
             OAuthExpectationFailedException, OAuthCommunicationException {
         return sign(wrap(request));
     }
 
-    public synchronized String sign(String url) throws OAuthMessageSignerException,
+    public String sign(String url) throws OAuthMessageSignerException,
             OAuthExpectationFailedException, OAuthCommunicationException {
         HttpRequest request = new UrlStringRequestAdapter(url);
 
-        // switch to URL signing
-        SigningStrategy oldStrategy = this.signingStrategy;
-        this.signingStrategy = new QueryStringSigningStrategy();
-
-        sign(request);
-
-        // revert to old strategy
-        this.signingStrategy = oldStrategy;
+        // use URL signing for this call only
+        sign(request, new QueryStringSigningStrategy());
 
         return request.getRequestUrl();
     }
@@ -206,8 +214,12 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
         }
     }
 
+    /**
+     * @return the parameters used by the last call to sign() on this thread,
+     *         or null
+     */
     public HttpParameters getRequestParameters() {
-        return requestParameters;
+        return requestParameters.get();
     }
 
     public void setSendEmptyTokens(boolean enable) {
@@ -257,6 +269,12 @@ public abstract class AbstractOAuthConsumer implements OAuthConsumer {
     }
 
     protected String generateNonce() {
-        return Long.toString(random.nextLong());
+        return Long.toString(ThreadLocalRandom.current().nextLong());
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        this.requestParameters = new ThreadLocal<HttpParameters>();
     }
 }
@@ -25,8 +25,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.yaml.snakeyaml.external.com.google.gdata.util.common.base.PercentEscaper;
-
 import oauth.signpost.http.HttpParameters;
 
 public class OAuth {
@@ -73,14 +71,14 @@ public class OAuth {
      */
     public static final String OUT_OF_BAND = "oob";
 
-    private static final PercentEscaper percentEncoder = new PercentEscaper(
-            "-._~", false);
-
+    /**
+     * @return s, percent encoded by {@link PercentEncoder}. "" for null.
+     */
     public static String percentEncode(String s) {
         if (s == null) {
             return "";
         }
-        return percentEncoder.escape(s);
+        return PercentEncoder.encode(s);
     }
 
     public static String percentDecode(String s) {
@@ -307,8 +305,12 @@ public class OAuth {
         return OAuth.percentEncode(name) + "=\"" + OAuth.percentEncode(value) + "\"";
     }
 
+    public static boolean isDebugging() {
+        return System.getProperty("debug") != null;
+    }
+
     public static void debugOut(String key, String value) {
-        if (System.getProperty("debug") != null) {
+        if (isDebugging()) {
             System.out.println("[SIGNPOST] " + key + ": " + value);
         }
     }
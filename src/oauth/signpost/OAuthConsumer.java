@@ -188,7 +188,8 @@ public interface OAuthConsumer extends Serializable {
      * {@link #sign}), plus all required OAuth parameters that were added
      * because the request didn't contain them beforehand. In other words, this
      * is the exact set of parameters that were used for creating the message
-     * signature.
+     * signature. If several threads are signing, each sees the parameters of
+     * its own last request.
      * 
      * @return the request parameters used for message signing
      */
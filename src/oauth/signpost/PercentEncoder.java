@@ -0,0 +1,195 @@
+package oauth.signpost;
+
+/**
+ * Percent encoding as per RFC 3986 and OAuth 1.0 section 5.1: everything
+ * except ALPHA, DIGIT and "-._~" is escaped, as UTF-8 bytes with upper-case
+ * hex digits. This is the one encoding used for urls, form bodies and
+ * signatures, so a parameter comes out the same everywhere.
+ * <p>
+ * Table driven, and text which needs no escaping (most parameters) is passed
+ * through without being copied. An unpaired surrogate is encoded as "?", as
+ * {@link java.net.URLEncoder} and {@link String#getBytes(String)} would.
+ */
+public final class PercentEncoder {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final boolean[] UNRESERVED = new boolean[128];
+    static {
+        for (char c = 'a'; c <= 'z'; c++) UNRESERVED[c] = true;
+        for (char c = 'A'; c <= 'Z'; c++) UNRESERVED[c] = true;
+        for (char c = '0'; c <= '9'; c++) UNRESERVED[c] = true;
+        for (char c : "-._~".toCharArray()) UNRESERVED[c] = true;
+    }
+
+    private PercentEncoder() {
+        // static methods only
+    }
+
+    /**
+     * @return true if c is never escaped
+     */
+    public static boolean isUnreserved(char c) {
+        return c < 128 && UNRESERVED[c];
+    }
+
+    /**
+     * @return the index of the first char in s[from, to) which must be
+     *         escaped, or -1 if there isn't one
+     */
+    public static int indexOfReserved(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c >= 128 || !UNRESERVED[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return s percent encoded -- which is just s.toString() if nothing in
+     *         it needs escaping
+     */
+    public static String encode(CharSequence s) {
+        int n = s.length();
+        int i = indexOfReserved(s, 0, n);
+        if (i == -1) {
+            return s.toString();
+        }
+        StringBuilder out = new StringBuilder(n + 16);
+        out.append(s, 0, i);
+        encode2(s, i, n, out);
+        return out.toString();
+    }
+
+    /**
+     * Append s, percent encoded, to out.
+     *
+     * @return out
+     */
+    public static StringBuilder encode(CharSequence s, StringBuilder out) {
+        int n = s.length();
+        int i = indexOfReserved(s, 0, n);
+        if (i == -1) {
+            return out.append(s);
+        }
+        out.append(s, 0, i);
+        encode2(s, i, n, out);
+        return out;
+    }
+
+    private static void encode2(CharSequence s, int i, int to, StringBuilder out) {
+        for (; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < 128) {
+                if (UNRESERVED[c]) {
+                    out.append(c);
+                } else {
+                    hex(out, c);
+                }
+                continue;
+            }
+            int cp = c;
+            if (Character.isSurrogate(c)) {
+                cp = codePoint(s, i, to);
+                if (cp > 0xFFFF) i++;
+            }
+            if (cp < 0x80) {
+                // an unpaired surrogate's '?'
+                hex(out, cp);
+                continue;
+            }
+            if (cp < 0x800) {
+                hex(out, 0xC0 | (cp >> 6));
+            } else {
+                if (cp < 0x10000) {
+                    hex(out, 0xE0 | (cp >> 12));
+                } else {
+                    hex(out, 0xF0 | (cp >> 18));
+                    hex(out, 0x80 | ((cp >> 12) & 0x3F));
+                }
+                hex(out, 0x80 | ((cp >> 6) & 0x3F));
+            }
+            hex(out, 0x80 | (cp & 0x3F));
+        }
+    }
+
+    /**
+     * Percent encode part of s into a byte array, e.g. one which is going to a
+     * Mac.
+     *
+     * @param lowerCase
+     *        If true, ASCII upper-case letters are lower-cased first (as wanted
+     *        for scheme and host names)
+     * @param out
+     *        Must have room for 9 bytes per char of s[from, to)
+     * @return the position in out after the last byte written
+     */
+    public static int encode(CharSequence s, int from, int to, boolean lowerCase,
+            byte[] out, int pos) {
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < 128) {
+                if (lowerCase && c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+                if (UNRESERVED[c]) {
+                    out[pos++] = (byte) c;
+                } else {
+                    pos = hex(out, pos, c);
+                }
+                continue;
+            }
+            int cp = c;
+            if (Character.isSurrogate(c)) {
+                cp = codePoint(s, i, to);
+                if (cp > 0xFFFF) i++;
+            }
+            if (cp < 0x80) {
+                pos = hex(out, pos, cp);
+                continue;
+            }
+            if (cp < 0x800) {
+                pos = hex(out, pos, 0xC0 | (cp >> 6));
+            } else {
+                if (cp < 0x10000) {
+                    pos = hex(out, pos, 0xE0 | (cp >> 12));
+                } else {
+                    pos = hex(out, pos, 0xF0 | (cp >> 18));
+                    pos = hex(out, pos, 0x80 | ((cp >> 12) & 0x3F));
+                }
+                pos = hex(out, pos, 0x80 | ((cp >> 6) & 0x3F));
+            }
+            pos = hex(out, pos, 0x80 | (cp & 0x3F));
+        }
+        return pos;
+    }
+
+    /**
+     * @param i
+     *        The index of a surrogate
+     * @return the code point starting at i, or '?' if the surrogate is unpaired
+     */
+    private static int codePoint(CharSequence s, int i, int to) {
+        char c = s.charAt(i);
+        if (Character.isHighSurrogate(c) && i + 1 < to) {
+            char low = s.charAt(i + 1);
+            if (Character.isLowSurrogate(low)) {
+                return Character.toCodePoint(c, low);
+            }
+        }
+        return '?';
+    }
+
+    private static void hex(StringBuilder out, int octet) {
+        out.append('%').append(HEX[(octet >> 4) & 0xF]).append(HEX[octet & 0xF]);
+    }
+
+    private static int hex(byte[] out, int pos, int octet) {
+        out[pos++] = '%';
+        out[pos++] = (byte) HEX[(octet >> 4) & 0xF];
+        out[pos++] = (byte) HEX[octet & 0xF];
+        return pos;
+    }
+}
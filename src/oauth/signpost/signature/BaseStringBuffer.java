@@ -0,0 +1,86 @@
+package oauth.signpost.signature;
+
+import java.io.UnsupportedEncodingException;
+
+import oauth.signpost.OAuth;
+import oauth.signpost.PercentEncoder;
+
+/**
+ * A growable byte array which a signature base string is written into, as
+ * UTF-8, so it can go straight to the Mac. Meant to be kept and reused by one
+ * thread.
+ */
+final class BaseStringBuffer {
+
+    /**
+     * Don't keep hold of buffers bigger than this (e.g. after signing a large
+     * form post).
+     */
+    private static final int MAX_KEPT = 16 * 1024;
+
+    private byte[] buf = new byte[512];
+
+    private int len;
+
+    void reset() {
+        if (buf.length > MAX_KEPT) {
+            buf = new byte[512];
+        }
+        len = 0;
+    }
+
+    byte[] bytes() {
+        return buf;
+    }
+
+    int length() {
+        return len;
+    }
+
+    private void ensure(int extra) {
+        if (len + extra > buf.length) {
+            byte[] bigger = new byte[Math.max(buf.length * 2, len + extra)];
+            System.arraycopy(buf, 0, bigger, 0, len);
+            buf = bigger;
+        }
+    }
+
+    /**
+     * Append ASCII text as it is.
+     */
+    void appendAscii(String s) {
+        int n = s.length();
+        ensure(n);
+        for (int i = 0; i < n; i++) {
+            buf[len++] = (byte) s.charAt(i);
+        }
+    }
+
+    /**
+     * Append s, as {@link OAuth#percentEncode(String)} would encode it.
+     */
+    void appendEncoded(String s) {
+        appendEncoded(s, 0, s.length(), false);
+    }
+
+    /**
+     * Append part of s, percent encoded.
+     * 
+     * @param lowerCase
+     *        If true, ASCII upper-case letters are lower-cased first
+     */
+    void appendEncoded(String s, int from, int to, boolean lowerCase) {
+        // worst case: 4 UTF-8 bytes per 2 chars, or 3 per char, each as %XX
+        ensure((to - from) * 9);
+        len = PercentEncoder.encode(s, from, to, lowerCase, buf, len);
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return new String(buf, 0, len, OAuth.ENCODING);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
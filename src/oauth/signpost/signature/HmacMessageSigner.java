@@ -0,0 +1,118 @@
+package oauth.signpost.signature;
+
+import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import oauth.signpost.OAuth;
+import oauth.signpost.exception.OAuthMessageSignerException;
+import oauth.signpost.http.HttpParameters;
+import oauth.signpost.http.HttpRequest;
+
+/**
+ * Base for the HMAC signers. The signing key is built once per consumer secret
+ * / token secret pair, and each thread keeps its own initialised {@link Mac},
+ * so signing a request costs just the HMAC itself -- no key encoding, provider
+ * lookup or Mac initialisation.
+ */
+@SuppressWarnings("serial")
+public abstract class HmacMessageSigner extends OAuthMessageSigner {
+
+    /**
+     * The key for one pair of secrets, plus a Mac per thread for it. Replaced
+     * as a whole when either secret changes.
+     */
+    private static final class Key {
+        final String consumerSecret, tokenSecret;
+        final SecretKeySpec spec;
+        final Mac prototype;
+        final ThreadLocal<Mac> macs = new ThreadLocal<Mac>();
+
+        Key(String consumerSecret, String tokenSecret, String macName)
+                throws GeneralSecurityException, UnsupportedEncodingException {
+            this.consumerSecret = consumerSecret;
+            this.tokenSecret = tokenSecret;
+            String keyString = OAuth.percentEncode(consumerSecret) + '&'
+                    + OAuth.percentEncode(tokenSecret);
+            this.spec = new SecretKeySpec(keyString.getBytes(OAuth.ENCODING), macName);
+            this.prototype = Mac.getInstance(macName);
+            prototype.init(spec);
+        }
+
+        boolean isFor(String consumerSecret, String tokenSecret) {
+            return equals(this.consumerSecret, consumerSecret)
+                    && equals(this.tokenSecret, tokenSecret);
+        }
+
+        private static boolean equals(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
+
+        /**
+         * @return this thread's Mac, ready to use
+         */
+        Mac mac() throws GeneralSecurityException {
+            Mac mac = macs.get();
+            if (mac == null) {
+                try {
+                    // cheaper than a provider lookup + init
+                    mac = (Mac) prototype.clone();
+                } catch (CloneNotSupportedException e) {
+                    mac = Mac.getInstance(prototype.getAlgorithm());
+                    mac.init(spec);
+                }
+                macs.set(mac);
+            }
+            return mac;
+        }
+    }
+
+    /**
+     * Reused for the signature base string of each request
+     */
+    private static final ThreadLocal<BaseStringBuffer> BUFFERS = ThreadLocal
+            .withInitial(BaseStringBuffer::new);
+
+    private final String macName;
+
+    private transient volatile Key key;
+
+    /**
+     * @param macName
+     *        The JCE name, e.g. "HmacSHA1"
+     */
+    protected HmacMessageSigner(String macName) {
+        this.macName = macName;
+    }
+
+    @Override
+    public String sign(HttpRequest request, HttpParameters requestParams)
+            throws OAuthMessageSignerException {
+        try {
+            String consumerSecret = getConsumerSecret();
+            String tokenSecret = getTokenSecret();
+            Key k = key;
+            if (k == null || !k.isFor(consumerSecret, tokenSecret)) {
+                k = new Key(consumerSecret, tokenSecret, macName);
+                key = k;
+            }
+
+            BaseStringBuffer sbs = BUFFERS.get();
+            new SignatureBaseString(request, requestParams).generate(sbs);
+            if (OAuth.isDebugging()) {
+                OAuth.debugOut("SBS", sbs.toString());
+            }
+
+            Mac mac = k.mac();
+            mac.update(sbs.bytes(), 0, sbs.length());
+            // doFinal() also resets the Mac for the next request
+            return base64Encode(mac.doFinal()).trim();
+        } catch (GeneralSecurityException e) {
+            throw new OAuthMessageSignerException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new OAuthMessageSignerException(e);
+        }
+    }
+}
@@ -29,9 +29,10 @@ public abstract class OAuthMessageSigner implements Serializable {
 
     private transient Base64 base64;
 
-    private String consumerSecret;
+    // volatile as consumers sign without locking
+    private volatile String consumerSecret;
 
-    private String tokenSecret;
+    private volatile String tokenSecret;
 
     public OAuthMessageSigner() {
         this.base64 = new Base64();
@@ -63,7 +64,8 @@ public abstract class OAuthMessageSigner implements Serializable {
     }
 
     protected String base64Encode(byte[] b) {
-        return new String(base64.encode(b));
+        // java.util's encoder doesn't allocate a codec buffer per call
+        return java.util.Base64.getEncoder().encodeToString(b);
     }
 
     private void readObject(java.io.ObjectInputStream stream)
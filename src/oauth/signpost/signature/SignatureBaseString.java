@@ -14,6 +14,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.SortedSet;
 
 import oauth.signpost.OAuth;
 import oauth.signpost.exception.OAuthMessageSignerException;
@@ -61,6 +63,106 @@ public class SignatureBaseString {
         }
     }
 
+    /**
+     * As {@link #generate()}, but written straight into out as UTF-8, in one
+     * pass over the url and parameters. Apart from growing out, this allocates
+     * next to nothing.
+     * 
+     * @param out
+     *        Reset, then filled with the signature base string
+     * @throws OAuthMessageSignerException
+     */
+    void generate(BaseStringBuffer out) throws OAuthMessageSignerException {
+        out.reset();
+        String url = request.getRequestUrl();
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd <= 0) {
+            // unusual url - let java.net.URI make sense of it
+            out.appendAscii(generate());
+            return;
+        }
+        try {
+            out.appendAscii(request.getMethod());
+            out.appendAscii("&");
+            writeRequestUrl(url, schemeEnd, out);
+            out.appendAscii("&");
+            writeRequestParameters(out);
+        } catch (RuntimeException e) {
+            throw new OAuthMessageSignerException(e);
+        }
+    }
+
+    /**
+     * The single-pass version of {@link #normalizeRequestUrl()}, percent
+     * encoded.
+     */
+    private static void writeRequestUrl(String url, int schemeEnd, BaseStringBuffer out) {
+        int n = url.length();
+        int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        while (authorityEnd < n && "/?#".indexOf(url.charAt(authorityEnd)) == -1) {
+            authorityEnd++;
+        }
+        int pathEnd = authorityEnd;
+        while (pathEnd < n && "?#".indexOf(url.charAt(pathEnd)) == -1) {
+            pathEnd++;
+        }
+        // drop the default port
+        int hostEnd = authorityEnd;
+        if (schemeEnd == 4 && url.regionMatches(true, 0, "http", 0, 4)
+                && url.startsWith(":80", authorityEnd - 3)) {
+            hostEnd -= 3;
+        } else if (schemeEnd == 5 && url.regionMatches(true, 0, "https", 0, 5)
+                && url.startsWith(":443", authorityEnd - 4)) {
+            hostEnd -= 4;
+        }
+        out.appendEncoded(url, 0, schemeEnd, true);
+        out.appendAscii("%3A%2F%2F"); // "://"
+        out.appendEncoded(url, authorityStart, hostEnd, true);
+        if (pathEnd > authorityEnd) {
+            out.appendEncoded(url, authorityEnd, pathEnd, false);
+        } else {
+            out.appendAscii("%2F"); // conforms to RFC 2616 section 3.2.2
+        }
+    }
+
+    /**
+     * The single-pass version of {@link #normalizeRequestParameters()},
+     * percent encoded. The parameters are already sorted (and encoded once).
+     */
+    private void writeRequestParameters(BaseStringBuffer out) {
+        if (requestParameters == null) {
+            return;
+        }
+        int i = 0;
+        for (Map.Entry<String, SortedSet<String>> param : requestParameters.entrySet()) {
+            String key = param.getKey();
+            if (OAuth.OAUTH_SIGNATURE.equals(key) || "realm".equals(key)) {
+                i++;
+                continue;
+            }
+            if (i++ > 0) {
+                out.appendAscii("%26"); // "&"
+            }
+            SortedSet<String> values = param.getValue();
+            if (values == null) {
+                out.appendEncoded(key);
+                out.appendAscii("%3D"); // "="
+                continue;
+            }
+            boolean first = true;
+            for (String value : values) {
+                if (!first) {
+                    out.appendAscii("%26");
+                }
+                first = false;
+                out.appendEncoded(key);
+                out.appendAscii("%3D");
+                out.appendEncoded(value);
+            }
+        }
+    }
+
     public String normalizeRequestUrl() throws URISyntaxException {
         URI uri = new URI(request.getRequestUrl());
         String scheme = uri.getScheme().toLowerCase();
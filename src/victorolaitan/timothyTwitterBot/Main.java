@@ -5,6 +5,8 @@ import javafx.stage.Stage;
 import victorolaitan.timothyTwitterBot.controller.DashboardController;
 import victorolaitan.timothyTwitterBot.trigger.Trigger;
 import victorolaitan.timothyTwitterBot.util.Util;
+import winterwell.jtwitter.HttpCache;
+import winterwell.jtwitter.HttpTransport;
 import winterwell.jtwitter.OAuthSignpostClient;
 import winterwell.jtwitter.Twitter;
 import winterwell.jtwitter.TwitterException;
@@ -38,6 +40,8 @@ public class Main extends Application {
         try {
             OAuthSignpostClient client = new OAuthSignpostClient(consumerKey, consumerSecret,
                     acs.get(0), acs.get(1));
+            client.setTransport(transport);
+            client.setCache(new HttpCache(CACHED_RESPONSES));
             username = acs.get(2);
             twitter = new Twitter(username, client);
         } catch (Exception e) {
@@ -48,22 +52,35 @@ public class Main extends Application {
         }
         DashboardController controller = Util.switchScene(stage, "dashboard");
         currentStage.show();
-        Trigger.init();
         Settings.init();
+        Trigger.init();
         controller.init();
     }
 
     @Override
     public void stop() {
         Trigger.saveTriggers();
+        Trigger.shutdown();
         Settings.save();
     }
 
     public static void main(String[] args) {
+        // Triggers mostly only look at ids, so leave the rest of each status until it's needed
+        Twitter.LAZY_STATUSES = true;
         launch(args);
     }
 
     private static OAuthSignpostClient oauthClient;
+    /**
+     * Keeps connections to Twitter open between calls, for every client. Null on Java 8, where
+     * the clients fall back to a connection per call.
+     */
+    private static final HttpTransport transport = HttpTransport.javaNetHttp();
+    /**
+     * Triggers poll the same timelines over and over. With no time-to-live set, every poll
+     * still asks Twitter, but an unchanged timeline comes back as a bodiless "not modified".
+     */
+    private static final int CACHED_RESPONSES = 200;
 
     public static void requestTokens() {
         oauthClient = new OAuthSignpostClient(consumerKey, consumerSecret, "oob");
@@ -91,8 +108,11 @@ public class Main extends Application {
         toSave[1] = codes[1];
         toSave[2] = username;
         Util.writeToTextFile("acs", false, toSave);
+        oauthClient.setTransport(transport);
+        oauthClient.setCache(new HttpCache(CACHED_RESPONSES));
         twitter = new Twitter(username, oauthClient);
         DashboardController controller = Util.switchScene(Main.currentStage, "dashboard");
+        Trigger.init();
         controller.init();
     }
 }
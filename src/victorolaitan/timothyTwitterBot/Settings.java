@@ -10,6 +10,7 @@ import java.lang.reflect.Field;
  */
 public class Settings {
     public static boolean NO_WARNING_WHEN_DELETING_AR;
+    public static boolean STREAM_TRIGGERS;
 
     public static void init() {
         try {
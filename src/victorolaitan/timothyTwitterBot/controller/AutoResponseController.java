@@ -174,7 +174,7 @@ public class AutoResponseController {
                     }
                 }
             }
-            Trigger.triggers.remove(selectedTrigger);
+            Trigger.removeTrigger(selectedTrigger);
             autoResponsesList.getSelectionModel().clearSelection();
             refreshList();
         } else {
@@ -39,7 +39,7 @@ public class BroadcastTweetResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
+    public void run(ResponseEvent event) {
         Main.twitter.updateStatus(message);
     }
 
@@ -36,8 +36,8 @@ public class FollowResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.users().follow(Main.twitter.users().getUser((long) data));
+    public void run(ResponseEvent event) {
+        Main.twitter.users().follow(event.getUser());
     }
 
     @Override
@@ -39,8 +39,8 @@ public class NewMessageResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.sendMessage(Main.twitter.users().getUser((long) data).getScreenName(), message);
+    public void run(ResponseEvent event) {
+        Main.twitter.sendMessage(event.getUser().getScreenName(), message);
     }
 
     @Override
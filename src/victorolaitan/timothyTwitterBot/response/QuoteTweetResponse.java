@@ -4,8 +4,6 @@ import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.trigger.Trigger;
 import victorolaitan.timothyTwitterBot.util.EasyJSON;
 
-import java.math.BigInteger;
-
 /**
  * Initial commit by Victor Olaitan on 26/03/2017.
  */
@@ -41,8 +39,8 @@ public class QuoteTweetResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.retweetWithComment(Main.twitter.getStatus((BigInteger) data), message);
+    public void run(ResponseEvent event) {
+        Main.twitter.retweetWithComment(event.getStatus(), message);
     }
 
     @Override
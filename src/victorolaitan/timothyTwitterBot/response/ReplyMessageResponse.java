@@ -4,8 +4,6 @@ import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.trigger.Trigger;
 import victorolaitan.timothyTwitterBot.util.EasyJSON;
 
-import java.math.BigInteger;
-
 /**
  * Initial commit by Victor Olaitan on 21/03/2017.
  */
@@ -41,8 +39,8 @@ public class ReplyMessageResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.sendMessage(Main.twitter.getDirectMessage((BigInteger) data).getSender().getScreenName(),message);
+    public void run(ResponseEvent event) {
+        Main.twitter.sendMessage(event.getUser().getScreenName(),message);
     }
 
     @Override
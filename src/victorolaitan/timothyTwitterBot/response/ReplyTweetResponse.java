@@ -4,8 +4,6 @@ import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.trigger.Trigger;
 import victorolaitan.timothyTwitterBot.util.EasyJSON;
 
-import java.math.BigInteger;
-
 /**
  * Initial commit by Victor Olaitan on 19/03/2017.
  */
@@ -41,8 +39,8 @@ public class ReplyTweetResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.updateStatus(message, (BigInteger) data);
+    public void run(ResponseEvent event) {
+        Main.twitter.updateStatus(message, event.getStatusId());
     }
 
     @Override
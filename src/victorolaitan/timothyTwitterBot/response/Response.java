@@ -16,7 +16,7 @@ public interface Response {
 
     EasyJSON exportResponse();
 
-    void run(Object data);
+    void run(ResponseEvent event);
 
     Object getSavedData();
 
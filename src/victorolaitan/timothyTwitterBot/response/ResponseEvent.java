@@ -0,0 +1,123 @@
+package victorolaitan.timothyTwitterBot.response;
+
+import victorolaitan.timothyTwitterBot.Main;
+import victorolaitan.timothyTwitterBot.util.Util;
+import winterwell.jtwitter.Message;
+import winterwell.jtwitter.Status;
+import winterwell.jtwitter.Twitter;
+import winterwell.jtwitter.User;
+
+import java.math.BigInteger;
+
+/**
+ * One event delivered by a trigger, shared by all of the trigger's responses.
+ * <p>
+ * Whatever a response needs (the status, the message, the user behind it) is fetched the first
+ * time any response asks for it and reused by the rest, so a trigger with a like, a retweet
+ * and a quote response attached costs one status lookup rather than three. A trigger that
+ * already fetched the item can hand it over so nothing needs fetching at all.
+ * <p>
+ * Responses run on several threads at once, so the getters are synchronized.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public final class ResponseEvent {
+    private final ResponseDataType type;
+    private final Object id;
+
+    private Status status;
+    private Message message;
+    private User user;
+
+    /**
+     * @param type the data type supplied by the trigger.
+     * @param id   the id the trigger delivered: a user id, status id or message id.
+     */
+    public ResponseEvent(ResponseDataType type, Object id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    /**
+     * @param item the status or message the id belongs to, if the trigger already has it.
+     */
+    public ResponseEvent(ResponseDataType type, Object id, Twitter.ITweet item) {
+        this(type, id);
+        if (item instanceof Status) {
+            status = (Status) item;
+        } else if (item instanceof Message) {
+            message = (Message) item;
+        }
+    }
+
+    public ResponseDataType getType() {
+        return type;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * @return the event converted to the given data type, or null if it can't be.
+     */
+    public Object getData(ResponseDataType required) {
+        if (required == ResponseDataType.USER_ID && type != ResponseDataType.USER_ID) {
+            return getUserId();
+        }
+        return Util.convertDataTypes(id, type, required);
+    }
+
+    public BigInteger getStatusId() {
+        return (BigInteger) getData(ResponseDataType.STATUS_ID);
+    }
+
+    public BigInteger getMessageId() {
+        return (BigInteger) getData(ResponseDataType.MESSAGE_ID);
+    }
+
+    /**
+     * @return the id of the user the event is about: the follower, the status' author or the
+     * message's sender. Usually known without a call.
+     */
+    public synchronized long getUserId() {
+        if (user != null) {
+            return user.getId();
+        } else if (status != null && status.getUser() != null) {
+            return status.getUser().getId();
+        } else if (message != null && message.getSender() != null) {
+            return message.getSender().getId();
+        }
+        return (long) Util.convertDataTypes(id, type, ResponseDataType.USER_ID);
+    }
+
+    public synchronized Status getStatus() {
+        if (status == null) {
+            status = Main.twitter.getStatus(getStatusId());
+        }
+        return status;
+    }
+
+    public synchronized Message getMessage() {
+        if (message == null) {
+            message = Main.twitter.getDirectMessage(getMessageId());
+        }
+        return message;
+    }
+
+    /**
+     * @return the user the event is about: the follower, the status' author or the message's sender.
+     */
+    public synchronized User getUser() {
+        if (user == null) {
+            if (type == ResponseDataType.STATUS_ID) {
+                user = getStatus().getUser();
+            } else if (type == ResponseDataType.MESSAGE_ID) {
+                user = getMessage().getSender();
+            } else {
+                user = Main.twitter.users().getUser((long) id);
+            }
+        }
+        return user;
+    }
+}
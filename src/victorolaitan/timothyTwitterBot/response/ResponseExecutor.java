@@ -0,0 +1,312 @@
+package victorolaitan.timothyTwitterBot.response;
+
+import winterwell.jtwitter.TwitterException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs responses on a pool of worker threads so that a trigger can hand off its events and
+ * get on with polling, instead of waiting for every response's Twitter call in turn.
+ * <p>
+ * Each response class has its own lane with a limit on how many of its responses may run at
+ * once, so a burst of one kind (eg. 300 follow-backs) can't take every worker. The number of
+ * responses waiting or running is bounded; once it is reached, {@link #submit(Response, ResponseEvent)}
+ * blocks the delivering trigger until there's room again.
+ * <p>
+ * With a {@link ResponseJournal} attached, every response is journaled before it runs and
+ * one that already ran for the same event is skipped. Responses that fail because Twitter is
+ * down, unreachable or rate limiting stay in the journal to be replayed later.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class ResponseExecutor {
+    private static final int POOL_SIZE = 4;
+    private static final int CAPACITY = 1000;
+    private static final int DEFAULT_CONCURRENCY = 2;
+    private static final long SHUTDOWN_WAIT = 10;
+
+    private final ExecutorService workers;
+    private final Semaphore capacity = new Semaphore(CAPACITY);
+    private final Map<Class<?>, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> concurrencyLimits = new ConcurrentHashMap<>();
+
+    private volatile ResponseJournal journal;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
+    public ResponseExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(POOL_SIZE, runnable -> {
+            Thread thread = new Thread(runnable, "response-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the response to run for the event, blocking while the executor is full.
+     */
+    public void submit(Response response, ResponseEvent event) throws InterruptedException {
+        long position = 0;
+        String key = null;
+        if (journal != null) {
+            try {
+                position = journal.begin(response, event.getId());
+                key = ResponseJournal.keyOf(response, event.getId());
+            } catch (IOException e) {
+                // better to run it unjournaled than to drop it
+                e.printStackTrace();
+            }
+            if (position < 0) {
+                return;
+            }
+        }
+        capacity.acquire();
+        lanes.computeIfAbsent(response.getClass(), Lane::new).offer(new Task(response, event, key, position));
+    }
+
+    /**
+     * Journals every response submitted from now on.
+     */
+    public void setJournal(ResponseJournal journal) {
+        this.journal = journal;
+    }
+
+    public ResponseJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Changes how many responses of the given class may run at the same time.
+     */
+    public void setConcurrencyLimit(Class<? extends Response> responseClass, int limit) {
+        concurrencyLimits.put(responseClass, limit);
+    }
+
+    /**
+     * Stops accepting work and waits briefly for running responses to finish.
+     * <p>
+     * Responses still queued are not lost: journaled ones are left pending, to be replayed on
+     * the next start, and the rest are run on the calling thread, within the same wait. Any
+     * left when it is up are dropped.
+     */
+    public void shutdown() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_WAIT);
+        workers.shutdown();
+        List<Task> unjournaled = new ArrayList<>();
+        for (Lane lane : lanes.values()) {
+            for (Task task : lane.takeWaiting()) {
+                if (task.key != null) {
+                    abandon(task);
+                } else {
+                    unjournaled.add(task);
+                }
+            }
+        }
+        for (Task task : unjournaled) {
+            if (System.nanoTime() < deadline) {
+                runNow(task);
+            } else {
+                abandon(task);
+            }
+        }
+        try {
+            workers.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return how many responses are waiting for a worker.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return how many queued responses never ran, because the executor shut down.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the average time responses spent queued before running, in milliseconds.
+     */
+    public double getAverageWaitMillis() {
+        long finished = completed.get() + failed.get();
+        return finished == 0 ? 0 : totalWaitNanos.get() / 1e6 / finished;
+    }
+
+    /**
+     * @return the average time responses took to run, in milliseconds.
+     */
+    public double getAverageRunMillis() {
+        long finished = completed.get() + failed.get();
+        return finished == 0 ? 0 : totalRunNanos.get() / 1e6 / finished;
+    }
+
+    private void execute(Lane lane, Task task) {
+        long started = System.nanoTime();
+        totalWaitNanos.addAndGet(started - task.submitted);
+        running.incrementAndGet();
+        ResponseJournal journal = this.journal;
+        boolean done = true;
+        try {
+            if (task.key != null) {
+                journal.awaitDurable(task.position);
+            }
+            task.response.run(task.event);
+            completed.incrementAndGet();
+        } catch (IOException | TwitterException.E50X | TwitterException.IO | TwitterException.RateLimit e) {
+            // worth trying again once Twitter recovers
+            done = false;
+            failed.incrementAndGet();
+            e.printStackTrace();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            e.printStackTrace();
+        } finally {
+            if (task.key != null) {
+                finish(journal, task.key, done);
+            }
+            totalRunNanos.addAndGet(System.nanoTime() - started);
+            running.decrementAndGet();
+            capacity.release();
+            lane.finished();
+        }
+    }
+
+    /**
+     * Runs a queued response on the calling thread, once the workers have stopped.
+     */
+    private void runNow(Task task) {
+        try {
+            task.response.run(task.event);
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            e.printStackTrace();
+        } finally {
+            capacity.release();
+        }
+    }
+
+    /**
+     * Gives back a queued response which the workers will no longer run. A journaled one stays
+     * pending, and is replayed later.
+     */
+    private void abandon(Task task) {
+        capacity.release();
+        if (task.key != null) {
+            journal.release(task.key);
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static void finish(ResponseJournal journal, String key, boolean done) {
+        if (!done) {
+            journal.release(key);
+            return;
+        }
+        try {
+            journal.complete(key);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static final class Task {
+        final Response response;
+        final ResponseEvent event;
+        final String key;
+        final long position;
+        final long submitted = System.nanoTime();
+
+        Task(Response response, ResponseEvent event, String key, long position) {
+            this.response = response;
+            this.event = event;
+            this.key = key;
+            this.position = position;
+        }
+    }
+
+    private final class Lane {
+        private final Class<?> responseClass;
+        private final Deque<Task> waiting = new ArrayDeque<>();
+        private int active;
+
+        Lane(Class<?> responseClass) {
+            this.responseClass = responseClass;
+        }
+
+        synchronized void offer(Task task) {
+            waiting.add(task);
+            queued.incrementAndGet();
+            drain();
+        }
+
+        synchronized void finished() {
+            active--;
+            drain();
+        }
+
+        /**
+         * @return every task still waiting, which the lane forgets.
+         */
+        synchronized List<Task> takeWaiting() {
+            List<Task> tasks = new ArrayList<>(waiting);
+            queued.addAndGet(-tasks.size());
+            waiting.clear();
+            return tasks;
+        }
+
+        private void drain() {
+            int limit = concurrencyLimits.getOrDefault(responseClass, DEFAULT_CONCURRENCY);
+            while (active < limit && !waiting.isEmpty()) {
+                Task task = waiting.poll();
+                queued.decrementAndGet();
+                try {
+                    workers.execute(() -> execute(this, task));
+                    active++;
+                } catch (RejectedExecutionException e) {
+                    // shut down since the last check
+                    abandon(task);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package victorolaitan.timothyTwitterBot.response;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A write-ahead journal of the responses the bot has been asked to run, so that nothing in
+ * flight is lost if the app closes or Twitter starts failing, and nothing is run twice.
+ * <p>
+ * Every response is recorded as pending (and synced to disk) before it runs, and marked done
+ * once it has run. On start-up, and periodically afterwards, whatever is still pending is run
+ * again. Each entry is keyed by the trigger event and the response, and a key that has already
+ * been completed is never run again.
+ * <p>
+ * Syncs are batched: a worker waiting for its entry to reach the disk also syncs every entry
+ * written before it. The journal is rewritten without its finished entries once it grows past
+ * {@link #COMPACT_AFTER} lines.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class ResponseJournal {
+    private static final int COMPACT_AFTER = 10000;
+    /**
+     * How many completed keys to remember for de-duplication after a compaction.
+     */
+    private static final int COMPLETED_MEMORY = 5000;
+
+    private final Path file;
+    private FileChannel channel;
+    private Writer writer;
+    private boolean closed;
+    private long written;
+    private long synced;
+    private int lines;
+
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final Set<String> completed = Collections.newSetFromMap(new LinkedHashMap<String, Boolean>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > COMPLETED_MEMORY;
+        }
+    });
+
+    private ResponseJournal(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the journal, reading back whatever was pending when it was last closed.
+     */
+    public static ResponseJournal open(String path) throws IOException {
+        ResponseJournal journal = new ResponseJournal(Paths.get(path));
+        journal.load();
+        journal.compact();
+        return journal;
+    }
+
+    /**
+     * A response waiting to be run, with enough detail to find it again after a restart.
+     */
+    public static final class Entry {
+        public final String key;
+        public final String triggerClass;
+        public final String responseClass;
+        public final String savedData;
+        public final Object event;
+
+        Entry(String key, String triggerClass, String responseClass, String savedData, Object event) {
+            this.key = key;
+            this.triggerClass = triggerClass;
+            this.responseClass = responseClass;
+            this.savedData = savedData;
+            this.event = event;
+        }
+    }
+
+    /**
+     * @param event the id the trigger delivered, before it was converted for the response.
+     * @return the key identifying this response running for this event.
+     */
+    public static String keyOf(Response response, Object event) {
+        Object savedData = response.getSavedData();
+        // the saved data itself, not a hash of it, so that two responses can't share a key
+        return response.getTrigger().getClass().getSimpleName() + ":" + encodeData(event) + ":"
+                + response.getClass().getSimpleName() + ":" + encodeText(savedData == null ? null : savedData.toString());
+    }
+
+    /**
+     * Records a response as pending.
+     *
+     * @param event the id the trigger delivered.
+     * @return the position to pass to {@link #awaitDurable(long)}, or -1 if the response has
+     * already been run or is already queued.
+     * @throws IOException if the response couldn't be journaled, eg. because the journal is closed.
+     */
+    public synchronized long begin(Response response, Object event) throws IOException {
+        checkOpen();
+        String key = keyOf(response, event);
+        if (completed.contains(key) || inFlight.contains(key)) {
+            return -1;
+        }
+        inFlight.add(key);
+        if (pending.containsKey(key)) {
+            // replaying an entry that is already on disk
+            return synced;
+        }
+        Object savedData = response.getSavedData();
+        Entry entry = new Entry(key, response.getTrigger().getClass().getName(), response.getClass().getName(),
+                savedData == null ? null : savedData.toString(), event);
+        pending.put(key, entry);
+        append(pendingLine(entry));
+        return written;
+    }
+
+    /**
+     * Blocks until everything up to the given position is on disk.
+     */
+    public synchronized void awaitDurable(long position) throws IOException {
+        if (position > synced) {
+            checkOpen();
+            writer.flush();
+            channel.force(false);
+            synced = written;
+        }
+    }
+
+    /**
+     * Marks a response as run. It won't be run again.
+     *
+     * @throws IOException if that couldn't be journaled, eg. because the journal is closed.
+     */
+    public synchronized void complete(String key) throws IOException {
+        checkOpen();
+        inFlight.remove(key);
+        pending.remove(key);
+        completed.add(key);
+        append("D\t" + key);
+        // not synced, but out of the app so that only a power cut can lose it
+        writer.flush();
+        if (lines > COMPACT_AFTER) {
+            compact();
+        }
+    }
+
+    /**
+     * Leaves a response pending so that the next replay runs it again.
+     */
+    public synchronized void release(String key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * @return pending entries that aren't currently queued or running.
+     */
+    public synchronized List<Entry> getPending() {
+        List<Entry> entries = new ArrayList<>();
+        for (Entry entry : pending.values()) {
+            if (!inFlight.contains(entry.key)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Gives up on a pending entry that can no longer be run, eg. because its trigger was removed.
+     */
+    public synchronized void discard(String key) throws IOException {
+        complete(key);
+    }
+
+    /**
+     * Syncs and closes the journal. Anything it is asked to record afterwards fails with an
+     * IOException.
+     */
+    public synchronized void close() throws IOException {
+        closed = true;
+        closeWriter();
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed || writer == null) {
+            throw new IOException("Response journal is closed: " + file);
+        }
+    }
+
+    private void openWriter() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        writer = Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), 8192);
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            Writer closing = writer;
+            writer = null;
+            try {
+                closing.flush();
+                channel.force(false);
+            } finally {
+                closing.close();
+            }
+        }
+    }
+
+    private void append(String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        written++;
+        lines++;
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts[0].equals("P") && parts.length == 6) {
+                    pending.put(parts[1], new Entry(parts[1], parts[2], parts[3], decodeText(parts[4]), decodeData(parts[5])));
+                } else if (parts[0].equals("D") && parts.length == 2) {
+                    pending.remove(parts[1]);
+                    completed.add(parts[1]);
+                }
+                // anything else is a line cut short by a crash
+            }
+        }
+    }
+
+    /**
+     * Rewrites the journal with only the pending entries and recently completed keys.
+     * <p>
+     * The new copy is written alongside the journal, which stays open (and intact) until the
+     * copy is safely on disk. It is then closed, since some platforms won't replace an open
+     * file, and whichever file ends up in place is reopened, even if the swap failed.
+     */
+    private void compact() throws IOException {
+        Path temp = Paths.get(file + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer tempWriter = Channels.newWriter(out, StandardCharsets.UTF_8.newEncoder(), 8192);
+            for (String key : completed) {
+                tempWriter.write("D\t" + key + "\n");
+            }
+            for (Entry entry : pending.values()) {
+                tempWriter.write(pendingLine(entry) + "\n");
+            }
+            tempWriter.flush();
+            out.force(true);
+        }
+        boolean swapped = false;
+        try {
+            closeWriter();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lines = completed.size() + pending.size();
+            swapped = true;
+        } finally {
+            openWriter();
+            if (swapped) {
+                // everything written so far is in the new copy, which is on disk
+                synced = written;
+            }
+        }
+    }
+
+    private static String pendingLine(Entry entry) {
+        return "P\t" + entry.key + "\t" + entry.triggerClass + "\t" + entry.responseClass + "\t"
+                + encodeText(entry.savedData) + "\t" + encodeData(entry.event);
+    }
+
+    private static String encodeData(Object data) {
+        if (data instanceof Long) {
+            return "L" + data;
+        } else if (data instanceof BigInteger) {
+            return "B" + data;
+        }
+        return "N";
+    }
+
+    private static Object decodeData(String text) {
+        switch (text.charAt(0)) {
+            case 'L':
+                return Long.valueOf(text.substring(1));
+            case 'B':
+                return new BigInteger(text.substring(1));
+            default:
+                return null;
+        }
+    }
+
+    private static String encodeText(String text) {
+        return text == null ? "-" : Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeText(String text) {
+        return text.equals("-") ? null : new String(Base64.getDecoder().decode(text), StandardCharsets.UTF_8);
+    }
+}
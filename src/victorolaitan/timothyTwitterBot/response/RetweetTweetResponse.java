@@ -4,8 +4,6 @@ import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.trigger.Trigger;
 import victorolaitan.timothyTwitterBot.util.EasyJSON;
 
-import java.math.BigInteger;
-
 /**
  * Initial commit by Victor Olaitan on 26/03/2017.
  */
@@ -38,8 +36,8 @@ public class RetweetTweetResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.retweet(Main.twitter.getStatus((BigInteger) data));
+    public void run(ResponseEvent event) {
+        Main.twitter.retweet(event.getStatus());
     }
 
     @Override
@@ -36,8 +36,8 @@ public class UnFollowResponse implements Response {
     }
 
     @Override
-    public void run(Object data) {
-        Main.twitter.users().stopFollowing(Main.twitter.users().getUser((long) data));
+    public void run(ResponseEvent event) {
+        Main.twitter.users().stopFollowing(event.getUser());
     }
 
     @Override
@@ -0,0 +1,187 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.LongConsumer;
+
+/**
+ * Saves the follower list between runs so that start-up doesn't need to re-download it, and
+ * follows/un-follows that happened while the bot was closed are picked up on the first sweep.
+ * <p>
+ * The snapshot file holds the sorted follower ids as the gaps between them, varint encoded
+ * (most gaps fit in 2-4 bytes), and is memory-mapped for reading. Between snapshots, every
+ * follow and un-follow that gets delivered is appended to a small log, which is replayed on
+ * top of the snapshot when loading and cleared whenever a new snapshot is written.
+ * <p>
+ * A snapshot can also carry followers which were delivered but which the sweep behind it
+ * missed (they followed after it had read their page). These are stored after the ids, so
+ * that they aren't delivered again when the next sweep finds them.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+final class FollowerStore {
+    private static final int MAGIC = 0x464F4C31; // FOL1
+    private static final byte FOLLOWED = '+';
+    private static final byte UNFOLLOWED = '-';
+
+    private final Path snapshotFile;
+    private final Path logFile;
+    private DataOutputStream log;
+
+    FollowerStore(String snapshotPath, String logPath) {
+        snapshotFile = Paths.get(snapshotPath);
+        logFile = Paths.get(logPath);
+    }
+
+    /**
+     * @param carried fed the followers carried by the snapshot.
+     * @return the sorted follower ids from the last snapshot, or null if there isn't one.
+     * @throws IOException if the file is not a snapshot, or was cut short.
+     */
+    long[] loadSnapshot(LongConsumer carried) throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a follower snapshot: " + snapshotFile);
+            }
+            int count = buffer.getInt();
+            // every id takes at least a byte
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IOException("Truncated follower snapshot: " + snapshotFile);
+            }
+            long[] ids = new long[count];
+            long id = 0;
+            for (int i = 0; i < ids.length; i++) {
+                id += readVarLong(buffer);
+                ids[i] = id;
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                carried.accept(buffer.getLong());
+            }
+            return ids;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated follower snapshot: " + snapshotFile, e);
+        }
+    }
+
+    /**
+     * Replaces the snapshot and clears the log, which the new snapshot supersedes.
+     *
+     * @param sortedIds follower ids in ascending order.
+     * @param carried   delivered followers which are not in sortedIds.
+     */
+    synchronized void saveSnapshot(long[] sortedIds, long[] carried) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(12 + sortedIds.length * 4 + carried.length * 8);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(sortedIds.length);
+        long previous = 0;
+        for (long id : sortedIds) {
+            writeVarLong(out, id - previous);
+            previous = id;
+        }
+        out.writeInt(carried.length);
+        for (long id : carried) {
+            out.writeLong(id);
+        }
+        Path temp = Paths.get(snapshotFile + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        closeLog();
+        Files.deleteIfExists(logFile);
+    }
+
+    /**
+     * Feeds every logged follow and un-follow, oldest first, to the consumers. A record cut
+     * short by a crash is ignored.
+     */
+    void replayLog(LongConsumer followed, LongConsumer unFollowed) throws IOException {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        try (InputStream stream = Files.newInputStream(logFile);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            while (true) {
+                byte type;
+                long id;
+                try {
+                    type = in.readByte();
+                    id = in.readLong();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (type == FOLLOWED) {
+                    followed.accept(id);
+                } else if (type == UNFOLLOWED) {
+                    unFollowed.accept(id);
+                }
+            }
+        }
+    }
+
+    void logFollow(long id) throws IOException {
+        append(FOLLOWED, id);
+    }
+
+    void logUnFollow(long id) throws IOException {
+        append(UNFOLLOWED, id);
+    }
+
+    private synchronized void append(byte type, long id) throws IOException {
+        if (log == null) {
+            log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile.toFile(), true)));
+        }
+        log.writeByte(type);
+        log.writeLong(id);
+        log.flush();
+    }
+
+    private void closeLog() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,233 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import victorolaitan.timothyTwitterBot.Main;
+import victorolaitan.timothyTwitterBot.util.LongHashSet;
+import winterwell.jtwitter.ListWithCursor;
+import winterwell.jtwitter.RateLimit;
+import winterwell.jtwitter.Twitter_Users;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Keeps one copy of the account's follower ids for both {@link FollowTrigger} and
+ * {@link UnFollowTrigger}, so the list is fetched once per cycle rather than once per trigger.
+ * <p>
+ * The follower ids are held as a sorted {@code long[]} (8 bytes per follower) and follows and
+ * un-follows are found with a linear merge of the old and new arrays.
+ * <p>
+ * Twitter returns followers 5000 at a time, newest first, and a big account needs more pages
+ * than the rate limit allows in one go. Each cycle therefore fetches a single page, either
+ * re-reading the newest page (to catch follows quickly) or continuing a sweep of the whole
+ * list. Un-follows are only reported when a sweep completes.
+ * <p>
+ * A follower reported after the sweep has read their page is missing from that sweep's list,
+ * so they are carried over and only forgotten once a later sweep has seen them. If the next
+ * sweep (which started after the report) doesn't see them either, they have un-followed.
+ * <p>
+ * The snapshot and everything reported since are kept on disk by a {@link FollowerStore}, so
+ * after a restart the first sweep reports what changed while the bot was closed.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+final class FollowerTracker {
+    static final FollowerTracker instance = new FollowerTracker();
+
+    private static final String FIRST_PAGE = "-1";
+
+    /**
+     * The complete follower list from the last finished sweep, sorted. Null until the first sweep.
+     */
+    private long[] snapshot;
+    /**
+     * Followers reported since the last finished sweep (from the newest page or the user stream).
+     */
+    private final LongHashSet reported = new LongHashSet();
+    /**
+     * Followers reported during the previous sweep but missing from it, because they followed
+     * after it had read their page.
+     */
+    private LongHashSet carried = new LongHashSet();
+    private long[] sweep = new long[0];
+    private int sweepSize;
+    private String sweepCursor = FIRST_PAGE;
+    private boolean headTurn;
+
+    private final FollowerStore store = new FollowerStore("followers.snapshot", "followers.log");
+
+    private FollowerTracker() {
+        try {
+            LongHashSet loadedCarried = new LongHashSet();
+            snapshot = store.loadSnapshot(loadedCarried::add);
+            LongHashSet unFollowed = new LongHashSet();
+            store.replayLog(reported::add, unFollowed::add);
+            if (snapshot != null && !unFollowed.isEmpty()) {
+                snapshot = Arrays.stream(snapshot).filter(id -> !unFollowed.contains(id)).toArray();
+            }
+            for (long id : loadedCarried.toArray()) {
+                if (!unFollowed.contains(id)) {
+                    carried.add(id);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            snapshot = null;
+            reported.clear();
+            carried.clear();
+        }
+    }
+
+    /**
+     * Fetches one page of follower ids and delivers whatever changed.
+     *
+     * @param caller the trigger whose rate-limit budget pays for the call.
+     * @return false if the budget did not allow a call.
+     */
+    synchronized boolean refresh(Trigger caller) {
+        if (headTurn && snapshot != null) {
+            ListWithCursor<Number> head = fetch(caller, FIRST_PAGE);
+            if (head == null) {
+                return false;
+            }
+            headTurn = false;
+            for (Number id : head) {
+                followed(id.longValue());
+            }
+            return true;
+        }
+        ListWithCursor<Number> page = fetch(caller, sweepCursor);
+        if (page == null) {
+            return false;
+        }
+        for (Number id : page) {
+            if (sweepSize == sweep.length) {
+                sweep = Arrays.copyOf(sweep, Math.max(16, sweepSize * 2));
+            }
+            sweep[sweepSize++] = id.longValue();
+            if (FIRST_PAGE.equals(sweepCursor) && snapshot != null) {
+                followed(id.longValue());
+            }
+        }
+        if (page.hasCursor()) {
+            sweepCursor = page.getCursor();
+            // a long sweep takes turns with re-reading the newest page
+            headTurn = true;
+        } else {
+            finishSweep();
+        }
+        return true;
+    }
+
+    /**
+     * Records a follow reported by the user stream.
+     *
+     * @return true if the follower is new and should be delivered.
+     */
+    synchronized boolean streamed(long id) {
+        if (isKnown(id) || !reported.add(id)) {
+            return false;
+        }
+        log(id, true);
+        return true;
+    }
+
+    private void finishSweep() {
+        long[] latest = Arrays.copyOf(sweep, sweepSize);
+        Arrays.sort(latest);
+        if (snapshot != null) {
+            FollowTrigger followTrigger = Trigger.locateTrigger(FollowTrigger.class);
+            UnFollowTrigger unFollowTrigger = Trigger.locateTrigger(UnFollowTrigger.class);
+            int i = 0;
+            int j = 0;
+            while (i < snapshot.length || j < latest.length) {
+                if (j == latest.length || (i < snapshot.length && snapshot[i] < latest[j])) {
+                    log(snapshot[i], false);
+                    if (unFollowTrigger != null && unFollowTrigger.isActive()) {
+                        unFollowTrigger.deliver(snapshot[i]);
+                    }
+                    i++;
+                } else if (i == snapshot.length || latest[j] < snapshot[i]) {
+                    if (!reported.contains(latest[j]) && !carried.contains(latest[j])) {
+                        log(latest[j], true);
+                        if (followTrigger != null && followTrigger.isActive()) {
+                            followTrigger.deliver(latest[j]);
+                        }
+                    }
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
+            }
+        }
+        LongHashSet stillMissing = new LongHashSet();
+        for (long id : reported.toArray()) {
+            if (Arrays.binarySearch(latest, id) < 0) {
+                stillMissing.add(id);
+            }
+        }
+        if (snapshot != null) {
+            UnFollowTrigger unFollowTrigger = Trigger.locateTrigger(UnFollowTrigger.class);
+            for (long id : carried.toArray()) {
+                if (Arrays.binarySearch(latest, id) < 0) {
+                    log(id, false);
+                    if (unFollowTrigger != null && unFollowTrigger.isActive()) {
+                        unFollowTrigger.deliver(id);
+                    }
+                }
+            }
+        }
+        snapshot = latest;
+        carried = stillMissing;
+        reported.clear();
+        try {
+            store.saveSnapshot(latest, carried.toArray());
+        } catch (IOException e) {
+            // the old snapshot and the log still describe the same state
+            e.printStackTrace();
+        }
+        sweep = new long[0];
+        sweepSize = 0;
+        sweepCursor = FIRST_PAGE;
+        headTurn = false;
+    }
+
+    private void followed(long id) {
+        if (isKnown(id) || !reported.add(id)) {
+            return;
+        }
+        log(id, true);
+        FollowTrigger followTrigger = Trigger.locateTrigger(FollowTrigger.class);
+        if (followTrigger != null && followTrigger.isActive()) {
+            followTrigger.deliver(id);
+        }
+    }
+
+    private void log(long id, boolean followed) {
+        try {
+            if (followed) {
+                store.logFollow(id);
+            } else {
+                store.logUnFollow(id);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isKnown(long id) {
+        return carried.contains(id) || (snapshot != null && Arrays.binarySearch(snapshot, id) >= 0);
+    }
+
+    /**
+     * @return the page, or null if the caller's budget did not allow the call.
+     */
+    private static ListWithCursor<Number> fetch(Trigger caller, String cursor) {
+        if (!caller.acquire(RateLimit.RES_FOLLOWER_IDS)) {
+            return null;
+        }
+        Twitter_Users users = Main.twitter.users();
+        users.setCursor(cursor);
+        return users.getFollowerIDs();
+    }
+}
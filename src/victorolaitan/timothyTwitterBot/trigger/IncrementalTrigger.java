@@ -0,0 +1,178 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import victorolaitan.timothyTwitterBot.Main;
+import victorolaitan.timothyTwitterBot.util.EasyJSON;
+import victorolaitan.timothyTwitterBot.util.Util;
+import winterwell.jtwitter.Twitter;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A trigger over a timeline that only fetches items newer than the last one it delivered.
+ * <p>
+ * The id of the newest delivered item is kept as a since_id watermark and saved with the
+ * trigger, so after a restart (or crash) delivery resumes exactly where it left off. If
+ * more than a page of new items arrived between cycles, older pages are fetched with
+ * max_id until the gap back to the watermark is closed. Every page is a separate call
+ * against the rate-limit budget.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+abstract class IncrementalTrigger extends Trigger {
+    private static final int PAGE_SIZE = 200;
+    /**
+     * Twitter won't page back further than 800 items on the mentions timeline anyway.
+     */
+    private static final int MAX_PAGES = 4;
+
+    /**
+     * A private copy, since the since/until ids are set on the Twitter object itself.
+     */
+    private final Twitter twitter = new Twitter(Main.twitter);
+    private BigInteger sinceId;
+    /**
+     * False until the first cycle has looked at the timeline. The watermark alone can't tell,
+     * since it stays null while the timeline is empty.
+     */
+    private boolean primed;
+    /**
+     * Items fetched while paging back to the watermark, held until the gap is closed. Paging
+     * stops for the cycle when the rate-limit budget runs out, and carries on from
+     * {@link #backlogMaxId} next cycle.
+     */
+    private List<Twitter.ITweet> backlog;
+    private BigInteger backlogMaxId;
+    private int backlogPages;
+    /**
+     * The newest item streamed while a backlog was pending. The watermark only moves up to it
+     * once the backlog has been delivered, or the older items would be skipped.
+     */
+    private BigInteger streamedId;
+
+    abstract String rateLimitResource();
+
+    abstract List<? extends Twitter.ITweet> fetch(Twitter twitter);
+
+    @Override
+    synchronized boolean onUpdateCycle() {
+        boolean called = false;
+        if (backlog == null) {
+            if (!acquire(rateLimitResource())) {
+                return false;
+            }
+            called = true;
+            twitter.setCount(PAGE_SIZE);
+            twitter.setSinceId(sinceId);
+            twitter.setUntilId(null);
+            List<? extends Twitter.ITweet> page = fetch(twitter);
+            if (!primed) {
+                // first run: only remember where we are, like the old full-list diff did
+                primed = true;
+                sinceId = page.stream().map(Twitter.ITweet::getId).max(Comparator.naturalOrder()).orElse(null);
+                if (sinceId != null) {
+                    Trigger.saveTriggers();
+                }
+                return true;
+            }
+            backlog = new ArrayList<>(page);
+            backlogPages = 1;
+            backlogMaxId = nextMaxId(page);
+        }
+        // each older page is a call of its own, so it needs a token of its own
+        while (backlogMaxId != null && backlogPages < MAX_PAGES) {
+            if (!acquire(rateLimitResource())) {
+                // carry on paging next cycle
+                return called;
+            }
+            called = true;
+            twitter.setCount(PAGE_SIZE);
+            twitter.setSinceId(sinceId);
+            twitter.setUntilId(backlogMaxId);
+            List<? extends Twitter.ITweet> page = fetch(twitter);
+            backlog.addAll(page);
+            backlogPages++;
+            backlogMaxId = nextMaxId(page);
+        }
+        List<Twitter.ITweet> fetched = backlog;
+        BigInteger watermark = sinceId;
+        backlog = null;
+        backlogMaxId = null;
+        // the timeline already carries each item's author, so responses needing a user id
+        // don't have to fetch it again
+        Util.rememberAuthors(suppliedDataType(), fetched, this::acquire);
+        fetched.sort(Comparator.comparing(Twitter.ITweet::getId));
+        for (Twitter.ITweet item : fetched) {
+            if (isNew(item.getId())) {
+                deliver(item.getId(), item);
+                sinceId = item.getId();
+            }
+        }
+        if (streamedId != null && isNew(streamedId)) {
+            sinceId = streamedId;
+        }
+        streamedId = null;
+        if (!Objects.equals(watermark, sinceId)) {
+            Trigger.saveTriggers();
+        }
+        return true;
+    }
+
+    /**
+     * @return the max_id for the page before this one, or null if this page reached back to
+     * the watermark.
+     */
+    private static BigInteger nextMaxId(List<? extends Twitter.ITweet> page) {
+        if (page.size() < PAGE_SIZE) {
+            return null;
+        }
+        BigInteger oldest = page.stream().map(Twitter.ITweet::getId).min(Comparator.naturalOrder()).get();
+        return oldest.subtract(BigInteger.ONE);
+    }
+
+    private boolean isNew(BigInteger id) {
+        return sinceId == null || id.compareTo(sinceId) > 0;
+    }
+
+    @Override
+    boolean isStreamable() {
+        return true;
+    }
+
+    @Override
+    synchronized void onStreamed(Object item) {
+        BigInteger id = ((Twitter.ITweet) item).getId();
+        if (!isNew(id)) {
+            // a poll got there first
+            return;
+        }
+        Util.rememberAuthors(suppliedDataType(), Collections.singletonList((Twitter.ITweet) item), this::acquire);
+        deliver(id, (Twitter.ITweet) item);
+        if (backlog != null) {
+            if (streamedId == null || id.compareTo(streamedId) > 0) {
+                streamedId = id;
+            }
+        } else {
+            sinceId = id;
+        }
+    }
+
+    @Override
+    void importState(EasyJSON.JSONElement data) {
+        if (data.search("sinceId") != null) {
+            sinceId = new BigInteger(data.<String>valueOf("sinceId"));
+            primed = true;
+        }
+    }
+
+    @Override
+    synchronized void exportState(EasyJSON json) {
+        if (sinceId != null) {
+            json.putGeneric("sinceId", sinceId.toString());
+        }
+    }
+}
@@ -1,32 +1,29 @@
 package victorolaitan.timothyTwitterBot.trigger;
 
-import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.response.ResponseDataType;
+import winterwell.jtwitter.RateLimit;
 import winterwell.jtwitter.Status;
+import winterwell.jtwitter.Twitter;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Initial commit by Victor Olaitan on 18/03/2017.
  */
-public class MentionTrigger extends Trigger {
-    private List<BigInteger> mentions = new ArrayList<>();
+public class MentionTrigger extends IncrementalTrigger {
 
     public MentionTrigger() {
         super();
-        mentions.addAll(Main.twitter.getMentions().stream().map(status -> status.id).collect(Collectors.toList()));
     }
 
     @Override
-    boolean onUpdateCycle() {
-        List<Status> newList = Main.twitter.getMentions();
-        newList.stream().filter(status -> !mentions.contains(status.id)).forEach(status -> deliver(status.id));
-        mentions.clear();
-        mentions.addAll(newList.stream().map(status -> status.id).collect(Collectors.toList()));
-        return true;
+    String rateLimitResource() {
+        return RateLimit.RES_MENTIONS;
+    }
+
+    @Override
+    List<Status> fetch(Twitter twitter) {
+        return twitter.getMentions();
     }
 
     @Override
@@ -1,31 +1,29 @@
 package victorolaitan.timothyTwitterBot.trigger;
 
-import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.response.ResponseDataType;
 import winterwell.jtwitter.Message;
+import winterwell.jtwitter.RateLimit;
+import winterwell.jtwitter.Twitter;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Initial commit by Victor Olaitan on 19/03/2017.
  */
-public class MessageTrigger extends Trigger {
-    private List<BigInteger> messages = new ArrayList<>();
+public class MessageTrigger extends IncrementalTrigger {
 
     public MessageTrigger() {
-        messages.addAll(Main.twitter.getDirectMessages().stream().map(Message::getId).collect(Collectors.toList()));
+        super();
     }
 
     @Override
-    boolean onUpdateCycle() {
-        List<Message> newList = Main.twitter.getDirectMessages();
-        newList.stream().filter(message -> !messages.contains(message.getId())).forEach(message -> deliver(message.id));
-        messages.clear();
-        messages.addAll(newList.stream().map(Message::getId).collect(Collectors.toList()));
-        return true;
+    String rateLimitResource() {
+        return RateLimit.RES_DIRECT_MESSAGES;
+    }
+
+    @Override
+    List<Message> fetch(Twitter twitter) {
+        return twitter.getDirectMessages();
     }
 
     @Override
@@ -0,0 +1,72 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import winterwell.jtwitter.RateLimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Token buckets keyed by Twitter rate-limit resource (eg. {@link RateLimit#RES_MENTIONS}).
+ * <p>
+ * Each bucket refills at the rate of the calls left in the current window divided by
+ * the time left until that window resets, using the live x-rate-limit headers captured
+ * by the http client. Calls are therefore spread evenly across the window instead of
+ * being spent at the start of it and then hitting a 429.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class RateLimitBudget {
+    /**
+     * Used until Twitter has told us the real limits for a resource.
+     */
+    private static final int DEFAULT_LIMIT = 15;
+    private static final long DEFAULT_WINDOW = 15 * 60 * 1000;
+    /**
+     * Never save up more than this many calls, so a quiet period can't be followed by a burst.
+     */
+    private static final double CAPACITY = 1;
+
+    private final Supplier<Map<String, RateLimit>> liveLimits;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    public RateLimitBudget(Supplier<Map<String, RateLimit>> liveLimits) {
+        this.liveLimits = liveLimits;
+    }
+
+    /**
+     * @return true if a call to the resource may be made now, in which case it has been
+     * deducted from the budget.
+     */
+    public boolean tryAcquire(String resource) {
+        Map<String, RateLimit> limits = liveLimits.get();
+        RateLimit live = limits == null ? null : limits.get(resource);
+        return buckets.computeIfAbsent(resource, key -> new Bucket()).tryAcquire(live, System.currentTimeMillis());
+    }
+
+    private static final class Bucket {
+        private double tokens = CAPACITY;
+        private long lastRefill = System.currentTimeMillis();
+
+        synchronized boolean tryAcquire(RateLimit live, long now) {
+            double ratePerMs;
+            if (live != null && !live.isOutOfDate()) {
+                if (live.getRemaining() <= 0) {
+                    lastRefill = now;
+                    return false;
+                }
+                long untilReset = Math.max(live.getReset().getTime() - now, 1);
+                ratePerMs = (double) live.getRemaining() / untilReset;
+            } else {
+                ratePerMs = (double) DEFAULT_LIMIT / DEFAULT_WINDOW;
+            }
+            tokens = Math.min(CAPACITY, tokens + (now - lastRefill) * ratePerMs);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+}
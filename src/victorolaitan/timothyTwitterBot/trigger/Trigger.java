@@ -1,75 +1,55 @@
 package victorolaitan.timothyTwitterBot.trigger;
 
+import victorolaitan.timothyTwitterBot.Main;
+import victorolaitan.timothyTwitterBot.Settings;
 import victorolaitan.timothyTwitterBot.response.Response;
 import victorolaitan.timothyTwitterBot.response.ResponseDataType;
+import victorolaitan.timothyTwitterBot.response.ResponseEvent;
+import victorolaitan.timothyTwitterBot.response.ResponseExecutor;
+import victorolaitan.timothyTwitterBot.response.ResponseJournal;
 import victorolaitan.timothyTwitterBot.util.EasyJSON;
 import victorolaitan.timothyTwitterBot.util.Util;
+import winterwell.jtwitter.Twitter;
 
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 /**
  * Initial commit by Victor Olaitan on 07/03/2017.
  */
 public abstract class Trigger {
-    private static final class TriggerCycle implements Runnable {
-        private static final int TWITTER_MAX_QUERIES_PER_MIN = 15;
-        private Thread thread;
-        private int size;
-        private long waitTime;
-        private boolean running;
-        private int currentPosition;
-
-        TriggerCycle() {
-            thread = new Thread(this);
-            thread.run();
-        }
-
-        @Override
-        public void run() {
-            running = true;
-            for (int i = currentPosition; i < size; i++, currentPosition++) {
-                Trigger trigger = triggers.get(i);
-                if (trigger.active) {
-                    boolean complete = trigger.onUpdateCycle();
-                    if (complete) {
-                        try {
-                            Thread.sleep(waitTime);
-                        } catch (InterruptedException e) {
-                            e.printStackTrace();
-                        }
-                    }
-                }
-                if (!running) {
-                    return;
-                }
-            }
-            currentPosition = 0;
-        }
-
-        void notifySizeUpdate() {
-            running = false;
-            size = triggers.size();
-            if (size > 0) {
-                waitTime = (size / TWITTER_MAX_QUERIES_PER_MIN) * (60000 / TWITTER_MAX_QUERIES_PER_MIN);
-                run();
-            } else {
-                currentPosition = 0;
-            }
-        }
-    }
+    /**
+     * Triggers are polled this often, but only make a call when {@link #budget} allows it.
+     */
+    private static final long DEFAULT_POLL_INTERVAL = 15000;
+    /**
+     * How often responses left in the journal by a Twitter outage are tried again.
+     */
+    private static final long REPLAY_INTERVAL = 5 * 60 * 1000;
 
     private static boolean initialised;
-    public static ArrayList<Trigger> triggers = new ArrayList<>();
-    private static TriggerCycle triggerCycle;
+    public static List<Trigger> triggers = new CopyOnWriteArrayList<>();
+    private static TriggerScheduler scheduler = new TriggerScheduler();
+    private static TriggerStream stream;
+    private static ResponseExecutor responseExecutor = new ResponseExecutor();
+    private static RateLimitBudget budget = new RateLimitBudget(() -> Main.twitter.getHttpClient().getRateLimits());
 
     public static void init() {
         if (initialised) return;
-        triggerCycle = new TriggerCycle();
         try {
             EasyJSON triggers = EasyJSON.open("triggers.txt");
             for (EasyJSON.JSONElement triggerData : triggers.search("triggers").children) {
@@ -77,45 +57,151 @@ public abstract class Trigger {
                 Constructor<?> triggerConstructor = triggerClass.getConstructor();
                 Trigger triggerInstance = (Trigger) triggerConstructor.newInstance();
                 triggerInstance.create(triggerData);
-                triggerInstance.active = true;
+                triggerInstance.activate();
             }
         } catch (IOException | EasyJSON.ParseException | ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException | InstantiationException e) {
             e.printStackTrace();
         }
+        try {
+            responseExecutor.setJournal(ResponseJournal.open("responses.journal"));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        scheduler.start();
+        if (responseExecutor.getJournal() != null) {
+            scheduler.submit(Trigger::replayPendingResponses);
+            scheduler.scheduleMaintenance(Trigger::replayPendingResponses, REPLAY_INTERVAL);
+        }
+        if (Settings.STREAM_TRIGGERS) {
+            stream = new TriggerStream(Main.twitter, scheduler);
+            scheduler.submit(stream::connect);
+            scheduler.scheduleMaintenance(stream::maintain, TriggerStream.MAINTENANCE_INTERVAL);
+        }
         initialised = true;
     }
 
+    public static void shutdown() {
+        scheduler.stop();
+        if (stream != null) {
+            stream.close();
+        }
+        responseExecutor.shutdown();
+        if (responseExecutor.getJournal() != null) {
+            try {
+                responseExecutor.getJournal().close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Resubmits every response the journal has pending, ie. ones that were queued when the app
+     * closed or that failed while Twitter was unavailable. Pending responses whose trigger or
+     * response has since been removed are dropped.
+     */
+    private static void replayPendingResponses() {
+        ResponseJournal journal = responseExecutor.getJournal();
+        for (ResponseJournal.Entry entry : journal.getPending()) {
+            Response response = locatePendingResponse(entry);
+            try {
+                if (response == null) {
+                    journal.discard(entry.key);
+                } else {
+                    responseExecutor.submit(response, new ResponseEvent(response.getTrigger().suppliedDataType(), entry.event));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static Response locatePendingResponse(ResponseJournal.Entry entry) {
+        for (Trigger trigger : triggers) {
+            if (!trigger.getClass().getName().equals(entry.triggerClass)) continue;
+            for (Response response : trigger.responses) {
+                Object savedData = response.getSavedData();
+                if (response.getClass().getName().equals(entry.responseClass)
+                        && Objects.equals(savedData == null ? null : savedData.toString(), entry.savedData)) {
+                    return response;
+                }
+            }
+        }
+        return null;
+    }
+
+    public static ResponseExecutor getResponseExecutor() {
+        return responseExecutor;
+    }
+
+    /**
+     * @return true if the trigger's events are currently arriving over the user stream.
+     */
+    static boolean isStreamed(Trigger trigger) {
+        return stream != null && stream.covers(trigger);
+    }
+
+    /**
+     * Stops every trigger polling until {@link #resumeAll()}, without losing their schedules.
+     */
+    public static void pauseAll() {
+        scheduler.pause();
+    }
+
+    public static void resumeAll() {
+        scheduler.resume();
+    }
 
-    public static void saveTriggers() {
-        boolean resume = triggerCycle.running;
-        triggerCycle.running = false;
+    public static boolean isPaused() {
+        return scheduler.isPaused();
+    }
+
+    /**
+     * Triggers save themselves from the scheduler's threads whenever their state moves on,
+     * so the file is written to a temporary copy first and then swapped in. The copy is
+     * written here rather than by {@link EasyJSON#save(String)}, which swallows write errors,
+     * so a failed write never replaces the good file.
+     */
+    public static synchronized void saveTriggers() {
         EasyJSON json = EasyJSON.create();
         json.putArray("triggers");
         for (Trigger trigger : triggers) {
             json.search("triggers").putGeneric(trigger.exportTrigger());
         }
+        Path temp = Paths.get("triggers.txt.tmp");
         try {
-            json.save("triggers.txt");
-        } catch (EasyJSON.ParseException e) {
+            byte[] bytes = json.exportToJSONOject().toJSONString().getBytes(StandardCharsets.UTF_8);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, Paths.get("triggers.txt"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (EasyJSON.ParseException | IOException e) {
             e.printStackTrace();
         }
-        if (resume) {
-            triggerCycle.run();
-        }
     }
 
     public static Trigger includeTrigger(Class<? extends Trigger> triggerClass, Object... args) throws InstantiationException {
         try {
-            Trigger trigger = (Trigger) triggerClass.getConstructors()[0].newInstance(args);
-            triggers.add(trigger);
-            triggerCycle.notifySizeUpdate();
-            return trigger;
+            // the constructor registers the trigger
+            return (Trigger) triggerClass.getConstructors()[0].newInstance(args);
         } catch (IllegalAccessException | InvocationTargetException e) {
             e.printStackTrace();
         }
         return null;
     }
 
+    public static void removeTrigger(Trigger trigger) {
+        triggers.remove(trigger);
+        scheduler.remove(trigger);
+    }
+
     public static <T extends Trigger> T locateTrigger(Class<? extends Trigger> triggerClass) {
         for (Trigger trigger : triggers) {
             if (trigger.getClass().equals(triggerClass)) {
@@ -126,17 +212,21 @@ public abstract class Trigger {
     }
 
 
-    public ArrayList<Response> responses = new ArrayList<>();
-    private boolean active;
+    public List<Response> responses = new CopyOnWriteArrayList<>();
+    private volatile boolean active;
+    private long pollInterval = DEFAULT_POLL_INTERVAL;
 
     Trigger(Response... responses) {
         triggers.add(this);
-        triggerCycle.notifySizeUpdate();
         this.responses.addAll(Arrays.stream(responses).collect(Collectors.toList()));
     }
 
     private void create(EasyJSON.JSONElement data) throws ClassNotFoundException, NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         active = data.valueOf("active");
+        if (data.search("pollInterval") != null) {
+            pollInterval = data.<Number>valueOf("pollInterval").longValue();
+        }
+        importState(data);
         for (EasyJSON.JSONElement responseData : data.search("responses").children) {
             Class<?> responseClass = Class.forName(responseData.valueOf("class"));
             Constructor<?> responseConstructor = responseClass.getConstructor(Trigger.class);
@@ -150,6 +240,8 @@ public abstract class Trigger {
         EasyJSON json = EasyJSON.create();
         json.putGeneric("class", this.getClass().getName());
         json.putGeneric("active", active);
+        json.putGeneric("pollInterval", pollInterval);
+        exportState(json);
         json.putArray("responses");
         for (Response response : responses) {
             json.search("responses").putGeneric(response.exportResponse());
@@ -157,15 +249,80 @@ public abstract class Trigger {
         return json;
     }
 
+    /**
+     * Implementations must {@link #acquire(String)} the rate-limit resource of every call they make.
+     *
+     * @return true if the cycle ran, false if it was skipped.
+     */
     abstract boolean onUpdateCycle();
 
+    /**
+     * Restores whatever the trigger saved in {@link #exportState(EasyJSON)}.
+     */
+    void importState(EasyJSON.JSONElement data) {
+    }
+
+    /**
+     * Saves any state the trigger needs to carry on where it left off after a restart.
+     */
+    void exportState(EasyJSON json) {
+    }
+
+    /**
+     * @return true if the user stream delivers every event this trigger polls for, so
+     * polling can stop while the stream is connected.
+     */
+    boolean isStreamable() {
+        return false;
+    }
+
+    /**
+     * Called with an item pushed by the user stream. Implementations deliver it and
+     * record it so that the next poll doesn't deliver it again.
+     */
+    void onStreamed(Object item) {
+    }
+
+    /**
+     * @return true if the rate-limit budget allows a call to the resource right now.
+     */
+    boolean acquire(String resource) {
+        return budget.tryAcquire(resource);
+    }
+
     public abstract ResponseDataType suppliedDataType();
 
+    /**
+     * Hands the event to each response's lane of the {@link ResponseExecutor}. Blocks while the
+     * executor is full, which slows this trigger's polling down to what the responses can manage.
+     */
     void deliver(Object data) {
+        deliver(new ResponseEvent(suppliedDataType(), data));
+    }
+
+    /**
+     * @param item the status or message the id belongs to, which the responses can use
+     *             instead of fetching it again.
+     */
+    void deliver(Object data, Twitter.ITweet item) {
+        deliver(new ResponseEvent(suppliedDataType(), data, item));
+    }
+
+    /**
+     * Every response shares the one event, so whatever one of them fetches is reused by the rest.
+     */
+    private void deliver(ResponseEvent event) {
         for (Response response : responses) {
-            Object converted = Util.convertDataTypes(data, suppliedDataType(), response.requiredDataType());
-            if (converted != null) {
-                response.run(response);
+            // as before, a response which needs no data from the event (eg. a broadcast) isn't
+            // run by it
+            if (response.requiredDataType() == null || !Util.checkDataTypesCompatible(suppliedDataType(), response.requiredDataType())) {
+                continue;
+            }
+            try {
+                responseExecutor.submit(response, event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
             }
         }
     }
@@ -176,10 +333,21 @@ public abstract class Trigger {
 
     public void activate() {
         active = true;
+        scheduler.add(this);
     }
 
     public void deactivate() {
         active = false;
+        scheduler.remove(this);
+    }
+
+    public long getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(long pollInterval) {
+        this.pollInterval = pollInterval;
+        scheduler.reschedule(this);
     }
 
     public boolean isActive() {
@@ -0,0 +1,156 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls every active trigger on a small pool of background threads so that no
+ * Twitter call (or the wait between calls) ever runs on the JavaFX thread.
+ * <p>
+ * Each trigger is scheduled with its own poll interval. Triggers can be added,
+ * removed or rescheduled while the scheduler is running, and the whole
+ * scheduler can be paused (cycles are skipped but stay scheduled) or stopped.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class TriggerScheduler {
+    private static final int POOL_SIZE = 4;
+
+    private final ScheduledExecutorService executor;
+    private final Map<Trigger, ScheduledFuture<?>> scheduled = new ConcurrentHashMap<>();
+    private volatile boolean running;
+    private volatile boolean paused;
+
+    TriggerScheduler() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "trigger-scheduler-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = Executors.newScheduledThreadPool(POOL_SIZE, threadFactory);
+    }
+
+    /**
+     * Starts polling every trigger that is currently active.
+     */
+    synchronized void start() {
+        if (running) return;
+        running = true;
+        paused = false;
+        for (Trigger trigger : Trigger.triggers) {
+            if (trigger.isActive()) {
+                schedule(trigger);
+            }
+        }
+    }
+
+    /**
+     * Skips every cycle until {@link #resume()} is called. Triggers keep their schedule.
+     */
+    void pause() {
+        paused = true;
+    }
+
+    void resume() {
+        paused = false;
+    }
+
+    /**
+     * Cancels every trigger and shuts the thread pool down, waiting briefly for
+     * any cycle that is mid-flight.
+     */
+    synchronized void stop() {
+        running = false;
+        for (ScheduledFuture<?> future : scheduled.values()) {
+            future.cancel(false);
+        }
+        scheduled.clear();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    synchronized void add(Trigger trigger) {
+        if (running && !scheduled.containsKey(trigger)) {
+            schedule(trigger);
+        }
+    }
+
+    synchronized void remove(Trigger trigger) {
+        ScheduledFuture<?> future = scheduled.remove(trigger);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Re-applies a trigger's poll interval after it has been changed.
+     */
+    synchronized void reschedule(Trigger trigger) {
+        if (scheduled.containsKey(trigger)) {
+            remove(trigger);
+            schedule(trigger);
+        }
+    }
+
+    /**
+     * Runs a one-off task on the scheduler's threads.
+     */
+    void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Runs a housekeeping task every interval until the scheduler is stopped.
+     */
+    void scheduleMaintenance(Runnable task, long interval) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private void schedule(Trigger trigger) {
+        long interval = trigger.getPollInterval();
+        scheduled.put(trigger, executor.scheduleWithFixedDelay(() -> cycle(trigger), interval, interval, TimeUnit.MILLISECONDS));
+    }
+
+    private void cycle(Trigger trigger) {
+        if (paused || !trigger.isActive() || Trigger.isStreamed(trigger)) {
+            return;
+        }
+        try {
+            trigger.onUpdateCycle();
+        } catch (Exception e) {
+            // an exception would cancel the trigger's schedule, so just report it
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package victorolaitan.timothyTwitterBot.trigger;
+
+import winterwell.jtwitter.AStream;
+import winterwell.jtwitter.Message;
+import winterwell.jtwitter.Status;
+import winterwell.jtwitter.Twitter;
+import winterwell.jtwitter.TwitterEvent;
+import winterwell.jtwitter.TwitterException;
+import winterwell.jtwitter.User;
+import winterwell.jtwitter.UserStream;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pushes mentions, direct messages and follows from the user stream to the matching
+ * triggers as soon as Twitter sends them, instead of waiting for the next poll.
+ * <p>
+ * While the stream is connected, triggers that it fully covers ({@link Trigger#isStreamable()})
+ * are not polled. If the stream drops, those triggers fall back to polling until it
+ * reconnects, and anything missed during the outage is filled in over REST.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class TriggerStream implements AStream.IListen {
+    static final long MAINTENANCE_INTERVAL = 60000;
+    private static final long RECONNECT_INTERVAL = 5 * 60000;
+    /**
+     * How many delivered ids to remember, so gap-filled items aren't delivered twice.
+     */
+    private static final int SEEN_CAPACITY = 10000;
+
+    private final Twitter twitter;
+    private final UserStream stream;
+    private final TriggerScheduler scheduler;
+    private final Set<BigInteger> seenStatuses = seenSet();
+    private final Set<BigInteger> seenMessages = seenSet();
+    private volatile long lastConnectAttempt;
+
+    TriggerStream(Twitter twitter, TriggerScheduler scheduler) {
+        // the stream changes its client's timeout, so give it a copy
+        this.twitter = new Twitter(twitter);
+        this.scheduler = scheduler;
+        stream = new UserStream(this.twitter);
+        stream.setAutoReconnect(true);
+        stream.addListener(this);
+    }
+
+    void connect() {
+        lastConnectAttempt = System.currentTimeMillis();
+        try {
+            stream.connect();
+        } catch (TwitterException e) {
+            e.printStackTrace();
+        }
+    }
+
+    void close() {
+        stream.close();
+    }
+
+    /**
+     * @return true if the stream is currently delivering the trigger's events, so it needn't be polled.
+     */
+    boolean covers(Trigger trigger) {
+        return trigger.isStreamable() && stream.isConnected();
+    }
+
+    /**
+     * Reconnects a dead stream, fills in outages over REST and delivers whatever that found.
+     */
+    void maintain() {
+        if (!stream.isAlive()) {
+            if (System.currentTimeMillis() - lastConnectAttempt > RECONNECT_INTERVAL) {
+                connect();
+            }
+            return;
+        }
+        Exception e = stream.fillInOutages();
+        if (e != null) {
+            e.printStackTrace();
+        }
+        // listeners have already seen everything else that was buffered
+        for (Twitter.ITweet tweet : stream.popTweets()) {
+            dispatch(tweet);
+        }
+        stream.popEvents();
+        stream.popSystemEvents();
+    }
+
+    @Override
+    public boolean processEvent(TwitterEvent event) {
+        if (event.is(TwitterEvent.Type.FOLLOW) && isSelf(event.getTarget())) {
+            FollowTrigger trigger = Trigger.locateTrigger(FollowTrigger.class);
+            if (trigger != null && trigger.isActive()) {
+                // listeners run on the stream's reading thread, so hand the work off
+                scheduler.submit(() -> trigger.onStreamed(event.getSource().getId()));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean processSystemEvent(Object[] obj) {
+        return true;
+    }
+
+    @Override
+    public boolean processTweet(Twitter.ITweet tweet) {
+        scheduler.submit(() -> dispatch(tweet));
+        return true;
+    }
+
+    private void dispatch(Twitter.ITweet tweet) {
+        if (tweet instanceof Message) {
+            Message message = (Message) tweet;
+            if (isSelf(message.getSender()) || !seenMessages.add(message.getId())) {
+                return;
+            }
+            MessageTrigger trigger = Trigger.locateTrigger(MessageTrigger.class);
+            if (trigger != null && trigger.isActive()) {
+                trigger.onStreamed(message);
+            }
+        } else if (tweet instanceof Status) {
+            Status status = (Status) tweet;
+            if (isSelf(status.getUser()) || !mentionsSelf(status) || !seenStatuses.add(status.getId())) {
+                return;
+            }
+            MentionTrigger trigger = Trigger.locateTrigger(MentionTrigger.class);
+            if (trigger != null && trigger.isActive()) {
+                trigger.onStreamed(status);
+            }
+        }
+    }
+
+    private boolean isSelf(User user) {
+        User self = twitter.getSelf();
+        return user != null && self != null && self.getId() != null && self.getId().equals(user.getId());
+    }
+
+    private boolean mentionsSelf(Status status) {
+        String screenName = twitter.getScreenName();
+        for (String mention : status.getMentions()) {
+            if (mention.equalsIgnoreCase(screenName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<BigInteger> seenSet() {
+        return Collections.synchronizedSet(Collections.newSetFromMap(new LinkedHashMap<BigInteger, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BigInteger, Boolean> eldest) {
+                return size() > SEEN_CAPACITY;
+            }
+        }));
+    }
+}
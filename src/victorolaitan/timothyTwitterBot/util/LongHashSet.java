@@ -0,0 +1,114 @@
+package victorolaitan.timothyTwitterBot.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive longs using open addressing with linear probing, so ids aren't boxed
+ * into {@link Long} objects. Zero is used to mark empty slots and is tracked separately.
+ * <p>
+ * Not thread safe.
+ * <p>
+ * Initial commit by Victor Olaitan on 17/10/2026.
+ */
+public class LongHashSet {
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        table = new long[tableSizeFor(expectedSize)];
+    }
+
+    /**
+     * @return true if the value was not already in the set.
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != 0) {
+            if (table[i] == value) return false;
+            i = (i + 1) & mask;
+        }
+        table[i] = value;
+        size++;
+        if (size > table.length * LOAD_FACTOR) {
+            rehash(table.length * 2);
+        }
+        return true;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) return containsZero;
+        int mask = table.length - 1;
+        int i = mix(value) & mask;
+        while (table[i] != 0) {
+            if (table[i] == value) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        size = 0;
+        containsZero = false;
+    }
+
+    /**
+     * @return the values in no particular order.
+     */
+    public long[] toArray() {
+        long[] values = new long[size];
+        int j = 0;
+        if (containsZero) values[j++] = 0;
+        for (long value : table) {
+            if (value != 0) values[j++] = value;
+        }
+        return values;
+    }
+
+    private void rehash(int newLength) {
+        long[] old = table;
+        table = new long[newLength];
+        int mask = newLength - 1;
+        for (long value : old) {
+            if (value == 0) continue;
+            int i = mix(value) & mask;
+            while (table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+        }
+    }
+
+    private static int mix(long value) {
+        // Twitter ids share their low bits surprisingly often, so spread the high bits down
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int needed = (int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
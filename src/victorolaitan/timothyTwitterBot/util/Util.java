@@ -7,6 +7,9 @@ import javafx.scene.image.Image;
 import javafx.stage.Stage;
 import victorolaitan.timothyTwitterBot.Main;
 import victorolaitan.timothyTwitterBot.response.ResponseDataType;
+import winterwell.jtwitter.RateLimit;
+import winterwell.jtwitter.Status;
+import winterwell.jtwitter.Twitter;
 
 import javax.imageio.ImageIO;
 import java.io.*;
@@ -19,11 +22,27 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Created by RictAcius on 05/03/2017.
  */
 public class Util {
+    private static final int AUTHOR_CACHE_SIZE = 10000;
+    /**
+     * Ids per statuses/lookup call.
+     */
+    private static final int LOOKUP_BATCH = 100;
+
+    /**
+     * The author of each recently seen status and direct message, so that converting them to
+     * user ids doesn't cost a call per response.
+     */
+    private static final Map<BigInteger, Long> statusAuthors = authorCache();
+    private static final Map<BigInteger, Long> messageSenders = authorCache();
 
     public static void init() {
         File acs = new File("acs.txt");
@@ -115,14 +134,80 @@ public class Util {
             return data;
         }
         if (supplied == ResponseDataType.STATUS_ID && required == ResponseDataType.USER_ID) {
-            return Main.twitter.getStatus((BigInteger) data).getUser().getId();
+            Long author = statusAuthors.get(data);
+            if (author == null) {
+                author = Main.twitter.getStatus((BigInteger) data).getUser().getId();
+                statusAuthors.put((BigInteger) data, author);
+            }
+            return author;
         } else if (supplied == ResponseDataType.MESSAGE_ID && required == ResponseDataType.USER_ID) {
-            return Main.twitter.getDirectMessage((BigInteger) data).getSender().getId();
+            Long sender = messageSenders.get(data);
+            if (sender == null) {
+                sender = Main.twitter.getDirectMessage((BigInteger) data).getSender().getId();
+                messageSenders.put((BigInteger) data, sender);
+            }
+            return sender;
         } else {
             return null;
         }
     }
 
+    /**
+     * Remembers the authors of statuses or messages that have already been fetched, so that
+     * {@link #convertDataTypes(Object, ResponseDataType, ResponseDataType)} needn't fetch them
+     * again. Any without an author are looked up in bulk.
+     *
+     * @param acquire asked for a rate-limit token before each bulk lookup call.
+     */
+    public static void rememberAuthors(ResponseDataType supplied, List<? extends Twitter.ITweet> items, Predicate<String> acquire) {
+        Map<BigInteger, Long> authors = supplied == ResponseDataType.MESSAGE_ID ? messageSenders : statusAuthors;
+        List<BigInteger> unknown = new ArrayList<>();
+        for (Twitter.ITweet item : items) {
+            if (item.getUser() != null) {
+                authors.put(item.getId(), item.getUser().getId());
+            } else {
+                unknown.add(item.getId());
+            }
+        }
+        resolveAuthors(supplied, unknown, acquire);
+    }
+
+    /**
+     * Looks up the authors of the given statuses with one call per 100 ids. Twitter has no bulk
+     * lookup for direct messages, so those are left to be fetched one at a time.
+     *
+     * @param acquire asked for a {@link RateLimit#RES_STATUS_LOOKUP} token before each call. Once
+     *                it says no, the rest are left to be fetched one at a time.
+     */
+    public static void resolveAuthors(ResponseDataType supplied, List<BigInteger> ids, Predicate<String> acquire) {
+        if (supplied != ResponseDataType.STATUS_ID) {
+            return;
+        }
+        List<BigInteger> missing = new ArrayList<>();
+        for (BigInteger id : ids) {
+            if (!statusAuthors.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        for (int i = 0; i < missing.size(); i += LOOKUP_BATCH) {
+            if (!acquire.test(RateLimit.RES_STATUS_LOOKUP)) {
+                return;
+            }
+            for (Status status : Main.twitter.getStatuses(missing.subList(i, Math.min(i + LOOKUP_BATCH, missing.size())))) {
+                statusAuthors.put(status.getId(), status.getUser().getId());
+            }
+        }
+    }
+
+    private static Map<BigInteger, Long> authorCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<BigInteger, Long>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BigInteger, Long> eldest) {
+                return size() > AUTHOR_CACHE_SIZE;
+            }
+        });
+    }
+
     public static boolean checkDataTypesCompatible(ResponseDataType supplied, ResponseDataType required) {
         if (supplied == null) {
             return false;
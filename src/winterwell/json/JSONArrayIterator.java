@@ -0,0 +1,176 @@
+package winterwell.json;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pulls the elements of a JSON array from a {@link JSONTokener} one at a time.
+ * Each element is only parsed when next() is called, so with a stream-backed
+ * tokener a long array can be processed as it arrives, and without ever
+ * holding all of it in memory.
+ * <p>
+ * Example: <pre>
+ *     Iterator it = new JSONArrayIterator(new JSONTokener(reader));
+ *     while (it.hasNext()) {
+ *         JSONObject element = (JSONObject) it.next();
+ *         ...
+ *     }</pre>
+ * Elements are what {@link JSONArray#get(int)} would give, except that a
+ * missing element (as in <code>[1,,2]</code>) is null.
+ */
+public class JSONArrayIterator implements Iterator<Object> {
+
+    /**
+     * The tokener, positioned at the next element.
+     */
+    private final JSONTokener x;
+
+
+    /**
+     * True once the closing bracket has been read.
+     */
+    private boolean done;
+
+
+    /**
+     * Start reading an array.
+     * @param x A JSONTokener positioned at the opening bracket.
+     * @throws JSONException If there is no array.
+     */
+    public JSONArrayIterator(JSONTokener x) throws JSONException {
+        this.x = x;
+        if (x.nextClean() != '[') {
+            throw x.syntaxError("A JSONArray text must start with '['");
+        }
+        if (x.nextClean() == ']') {
+            this.done = true;
+        } else {
+            x.back();
+        }
+    }
+
+
+    /**
+     * An iterator with nothing in it.
+     */
+    private JSONArrayIterator() {
+        this.x = null;
+        this.done = true;
+    }
+
+
+    /**
+     * Start reading the array that is the value of a key in an object, e.g.
+     * the "statuses" of a search result. Values before the key are parsed and
+     * thrown away. Values after the array are not read.
+     * @param x A JSONTokener positioned at the opening brace of the object.
+     * @param key The key whose value is wanted.
+     * @return An iterator over the array, which is empty if the object does
+     * not have the key (or has null for it).
+     * @throws JSONException If there is a syntax error, or the value is not
+     * an array.
+     */
+    public static JSONArrayIterator inObject(JSONTokener x, String key)
+            throws JSONException {
+        if (x.nextClean() != '{') {
+            throw x.syntaxError("A JSONObject text must begin with '{'");
+        }
+        for (;;) {
+            char c = x.nextClean();
+            switch (c) {
+            case 0:
+                throw x.syntaxError("A JSONObject text must end with '}'");
+            case '}':
+                return new JSONArrayIterator();
+            default:
+                x.back();
+            }
+            String k = x.nextValue().toString();
+
+            /*
+             * The key is followed by ':'. We will also tolerate '=' or '=>'.
+             */
+
+            c = x.nextClean();
+            if (c == '=') {
+                if (x.next() != '>') {
+                    x.back();
+                }
+            } else if (c != ':') {
+                throw x.syntaxError("Expected a ':' after a key");
+            }
+            if (k.equals(key)) {
+                c = x.nextClean();
+                x.back();
+                if (c == '[') {
+                    return new JSONArrayIterator(x);
+                }
+                if (JSONObject.NULL.equals(x.nextValue())) {
+                    return new JSONArrayIterator();
+                }
+                throw x.syntaxError("Expected an array for " + key);
+            }
+            x.nextValue();
+
+            /*
+             * Pairs are separated by ','. We will also tolerate ';'.
+             */
+
+            switch (x.nextClean()) {
+            case ';':
+            case ',':
+                break;
+            case '}':
+                return new JSONArrayIterator();
+            default:
+                throw x.syntaxError("Expected a ',' or '}'");
+            }
+        }
+    }
+
+
+    public boolean hasNext() {
+        return !this.done;
+    }
+
+
+    /**
+     * Parse the next element.
+     * @return The element, which is null if it was missing.
+     * @throws JSONException If there is a syntax error.
+     */
+    public Object next() throws JSONException {
+        if (this.done) {
+            throw new NoSuchElementException();
+        }
+        Object value;
+        if (this.x.nextClean() == ',') {
+            this.x.back();
+            value = null;
+        } else {
+            this.x.back();
+            value = this.x.nextValue();
+        }
+        switch (this.x.nextClean()) {
+        case ';':
+        case ',':
+            if (this.x.nextClean() == ']') {
+                this.done = true;
+            } else {
+                this.x.back();
+            }
+            break;
+        case ']':
+            this.done = true;
+            break;
+        default:
+            throw this.x.syntaxError("Expected a ',' or ']'");
+        }
+        return value;
+    }
+
+
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
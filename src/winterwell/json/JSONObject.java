@@ -129,6 +129,13 @@ public class JSONObject {
     }
 
 
+    /**
+     * How many properties to make room for when parsing: enough for a tweet
+     * or a user.
+     */
+    private static final int PARSE_CAPACITY = 32;
+
+
     /**
      * The hash map where the JSONObject's properties are kept.
      */
@@ -152,6 +159,15 @@ public class JSONObject {
     }
 
 
+    /**
+     * Construct an empty JSONObject, with room for a number of properties.
+     * @param capacity The number of properties expected.
+     */
+    private JSONObject(int capacity) {
+        this.myHashMap = new HashMap(capacity * 4 / 3 + 1);
+    }
+
+
     /**
      * Construct a JSONObject from a subset of another JSONObject.
      * An array of strings is used to identify the keys that should be copied.
@@ -174,7 +190,8 @@ public class JSONObject {
      * @throws JSONException If there is a syntax error in the source string.
      */
     public JSONObject(JSONTokener x) throws JSONException {
-        this();
+        // Sized so that a tweet's properties fit without rehashing
+        this(PARSE_CAPACITY);
         char c;
         String key;
 
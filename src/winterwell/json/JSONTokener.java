@@ -1,5 +1,8 @@
 package winterwell.json;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 
 /*
 Copyright (c) 2002 JSON.org
@@ -29,11 +32,38 @@ SOFTWARE.
  * A JSONTokener takes a source string and extracts characters and tokens from
  * it. It is used by the JSONObject and JSONArray constructors to parse
  * JSON source strings.
+ * <p>
+ * It can also read from a stream, so that a big document (e.g. a page of
+ * tweets) can be parsed as it arrives, without first being read into a
+ * String. See {@link JSONArrayIterator}.
+ * <p>
+ * When reading from a string, whitespace, strings and unquoted values are
+ * found by scanning ahead and taking substrings, rather than a character at a
+ * time, and plain integers are converted without trial and error.
  * @author JSON.org
  * @version 2
  */
 public class JSONTokener {
 
+    /**
+     * The characters which end an unquoted value, as a lookup table.
+     */
+    private static final boolean[] DELIMITERS = new boolean[128];
+    static {
+        for (char c : ",:]}/\\\"[{;=#".toCharArray()) {
+            DELIMITERS[c] = true;
+        }
+    }
+
+
+    /**
+     * How far skipTo() looks ahead in a stream. The skipped characters must
+     * be kept so that a failed skip can be undone, and BufferedReader sizes
+     * its buffer to the mark limit.
+     */
+    private static final int SKIP_TO_LIMIT = 8192;
+
+
     /**
      * The index of the next character.
      */
@@ -46,6 +76,24 @@ public class JSONTokener {
     private final String mySource;
 
 
+    /**
+     * The source stream being tokenized, or null if reading from a string.
+     */
+    private final Reader myReader;
+
+
+    /**
+     * The last character read from myReader, which back() steps back to.
+     */
+    private char myPrevious;
+
+
+    /**
+     * True if back() was called, so the next character is myPrevious.
+     */
+    private boolean myUsePrevious;
+
+
     /**
      * Construct a JSONTokener from a string.
      *
@@ -54,6 +102,22 @@ public class JSONTokener {
     public JSONTokener(String s) {
         this.myIndex = 0;
         this.mySource = s;
+        this.myReader = null;
+    }
+
+
+    /**
+     * Construct a JSONTokener which reads from a stream. Characters are
+     * pulled from the reader as they are needed, so a document can be parsed
+     * (and acted on) before it has all arrived. The caller should close the
+     * reader.
+     *
+     * @param reader     A reader. It will be buffered if it is not already.
+     */
+    public JSONTokener(Reader reader) {
+        this.myIndex = 0;
+        this.mySource = null;
+        this.myReader = reader.markSupported() ? reader : new BufferedReader(reader);
     }
 
 
@@ -64,6 +128,13 @@ public class JSONTokener {
      */
     public void back() {
         if (this.myIndex > 0) {
+            if (this.myReader != null) {
+                // only the last character can be stepped back over
+                if (this.myUsePrevious) {
+                    throw new JSONException("Stepping back two steps is not supported");
+                }
+                this.myUsePrevious = true;
+            }
             this.myIndex -= 1;
         }
     }
@@ -96,7 +167,16 @@ public class JSONTokener {
      * @return true if not yet at the end of the source.
      */
     public boolean more() {
-        return this.myIndex < this.mySource.length();
+        if (this.myReader == null) {
+            return this.myIndex < this.mySource.length();
+        }
+        if (this.myUsePrevious) {
+            return this.myPrevious != 0;
+        }
+        // peek (at the end, back() will give 0 again)
+        char c = next();
+        back();
+        return c != 0;
     }
 
 
@@ -106,7 +186,10 @@ public class JSONTokener {
      * @return The next character, or 0 if past the end of the source string.
      */
     public char next() {
-        if (more()) {
+        if (this.myReader != null) {
+            return nextFromReader();
+        }
+        if (this.myIndex < this.mySource.length()) {
             char c = this.mySource.charAt(this.myIndex);
             this.myIndex += 1;
             return c;
@@ -142,6 +225,16 @@ public class JSONTokener {
      *   n characters remaining in the source string.
      */
      public String next(int n) throws JSONException {
+         if (this.myReader != null) {
+             char[] chars = new char[n];
+             for (int i = 0; i < n; i++) {
+                 chars[i] = next();
+                 if (chars[i] == 0 && ! more()) {
+                     throw syntaxError("Substring bounds error");
+                 }
+             }
+             return new String(chars);
+         }
          int i = this.myIndex;
          int j = i + n;
          if (j >= this.mySource.length()) {
@@ -152,6 +245,32 @@ public class JSONTokener {
      }
 
 
+    /**
+     * next() for a stream.
+     *
+     * @return The next character, or 0 if past the end of the stream.
+     */
+    private char nextFromReader() {
+        char c;
+        if (this.myUsePrevious) {
+            this.myUsePrevious = false;
+            c = this.myPrevious;
+        } else {
+            int r;
+            try {
+                r = this.myReader.read();
+            } catch (IOException e) {
+                throw new JSONException(e);
+            }
+            // at the end, keep returning 0 (which back() can step back over)
+            c = r == -1 ? 0 : (char) r;
+        }
+        this.myIndex += 1;
+        this.myPrevious = c;
+        return c;
+    }
+
+
     /**
      * Get the next char in the string, skipping whitespace
      * and comments (slashslash, slashstar, and hash).
@@ -159,6 +278,20 @@ public class JSONTokener {
      * @return  A character, or 0 if there are no more characters.
      */
     public char nextClean() throws JSONException {
+        if (this.myReader == null) {
+            // skip plain whitespace in one go
+            String src = this.mySource;
+            int n = src.length();
+            int i = this.myIndex;
+            while (i < n) {
+                char c = src.charAt(i);
+                if (c > ' ' || c == 0) {
+                    break;
+                }
+                i++;
+            }
+            this.myIndex = i;
+        }
         for (;;) {
             char c = next();
             if (c == '/') {
@@ -209,8 +342,11 @@ public class JSONTokener {
      * @throws JSONException Unterminated string.
      */
     public String nextString(char quote) throws JSONException {
+        if (this.myReader == null) {
+            return nextStringInSource(quote);
+        }
         char c;
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         for (;;) {
             c = next();
             switch (c) {
@@ -219,32 +355,7 @@ public class JSONTokener {
             case '\r':
                 throw syntaxError("Unterminated string");
             case '\\':
-                c = next();
-                switch (c) {
-                case 'b':
-                    sb.append('\b');
-                    break;
-                case 't':
-                    sb.append('\t');
-                    break;
-                case 'n':
-                    sb.append('\n');
-                    break;
-                case 'f':
-                    sb.append('\f');
-                    break;
-                case 'r':
-                    sb.append('\r');
-                    break;
-                case 'u':
-                    sb.append((char)Integer.parseInt(next(4), 16));
-                    break;
-                case 'x' :
-                    sb.append((char) Integer.parseInt(next(2), 16));
-                    break;
-                default:
-                    sb.append(c);
-                }
+                nextEscape(sb);
                 break;
             default:
                 if (c == quote) {
@@ -256,6 +367,83 @@ public class JSONTokener {
     }
 
 
+    /**
+     * nextString() for a string: runs of plain characters are copied in one
+     * go, and a string without escapes is just a substring of the source.
+     */
+    private String nextStringInSource(char quote) throws JSONException {
+        String src = this.mySource;
+        int n = src.length();
+        int start = this.myIndex;
+        StringBuilder sb = null;
+        for (int i = start; ; i++) {
+            if (i >= n) {
+                this.myIndex = n;
+                throw syntaxError("Unterminated string");
+            }
+            char c = src.charAt(i);
+            if (c == quote) {
+                this.myIndex = i + 1;
+                if (sb == null) {
+                    return src.substring(start, i);
+                }
+                return sb.append(src, start, i).toString();
+            }
+            switch (c) {
+            case 0:
+            case '\n':
+            case '\r':
+                this.myIndex = i + 1;
+                throw syntaxError("Unterminated string");
+            case '\\':
+                if (sb == null) {
+                    sb = new StringBuilder(i - start + 16);
+                }
+                sb.append(src, start, i);
+                this.myIndex = i + 1;
+                nextEscape(sb);
+                start = this.myIndex;
+                i = start - 1;
+                break;
+            }
+        }
+    }
+
+
+    /**
+     * Read the rest of a backslash escape, and append the character it
+     * stands for.
+     */
+    private void nextEscape(StringBuilder sb) throws JSONException {
+        char c = next();
+        switch (c) {
+        case 'b':
+            sb.append('\b');
+            break;
+        case 't':
+            sb.append('\t');
+            break;
+        case 'n':
+            sb.append('\n');
+            break;
+        case 'f':
+            sb.append('\f');
+            break;
+        case 'r':
+            sb.append('\r');
+            break;
+        case 'u':
+            sb.append((char)Integer.parseInt(next(4), 16));
+            break;
+        case 'x' :
+            sb.append((char) Integer.parseInt(next(2), 16));
+            break;
+        default:
+            sb.append(c);
+        }
+    }
+
+
     /**
      * Get the text up but not including the specified character or the
      * end of line, whichever comes first.
@@ -263,7 +451,7 @@ public class JSONTokener {
      * @return   A string.
      */
     public String nextTo(char d) {
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         for (;;) {
             char c = next();
             if (c == d || c == 0 || c == '\n' || c == '\r') {
@@ -285,7 +473,7 @@ public class JSONTokener {
      */
     public String nextTo(String delimiters) {
         char c;
-        StringBuffer sb = new StringBuffer();
+        StringBuilder sb = new StringBuilder();
         for (;;) {
             c = next();
             if (delimiters.indexOf(c) >= 0 || c == 0 ||
@@ -332,19 +520,32 @@ public class JSONTokener {
          * formatting character.
          */
 
-        StringBuffer sb = new StringBuffer();
         char b = c;
-        while (c >= ' ' && ",:]}/\\\"[{;=#".indexOf(c) < 0) {
-            sb.append(c);
-            c = next();
+        if (this.myReader == null && ! isDelimiter(c)) {
+            // scan ahead, and take the value as a substring
+            String src = this.mySource;
+            int n = src.length();
+            int start = this.myIndex - 1;
+            int i = this.myIndex;
+            while (i < n && ! isDelimiter(src.charAt(i))) {
+                i++;
+            }
+            this.myIndex = i;
+            s = src.substring(start, i).trim();
+        } else {
+            StringBuilder sb = new StringBuilder();
+            while ( ! isDelimiter(c)) {
+                sb.append(c);
+                c = next();
+            }
+            back();
+            s = sb.toString().trim();
         }
-        back();
 
         /*
          * If it is true, false, or null, return the proper value.
          */
 
-        s = sb.toString().trim();
         if (s.equals("")) {
             throw syntaxError("Missing value");
         }
@@ -367,6 +568,21 @@ public class JSONTokener {
          */
 
         if ((b >= '0' && b <= '9') || b == '.' || b == '-' || b == '+') {
+            Number number = parseInteger(s);
+            if (number != null) {
+                return number;
+            }
+            boolean hex = b == '0' && s.length() > 2
+                    && (s.charAt(1) == 'x' || s.charAt(1) == 'X');
+            if ( ! hex && (s.indexOf('.') >= 0 || s.indexOf('e') >= 0
+                    || s.indexOf('E') >= 0)) {
+                // not an integer, so go straight to Double
+                try {
+                    return Double.valueOf(s);
+                } catch (NumberFormatException e) {
+                    return s;
+                }
+            }
             if (b == '0') {
                 if (s.length() > 2 &&
                         (s.charAt(1) == 'x' || s.charAt(1) == 'X')) {
@@ -402,14 +618,72 @@ public class JSONTokener {
     }
 
 
+    /**
+     * @return true if c ends an unquoted value (or is a control character).
+     */
+    private static boolean isDelimiter(char c) {
+        return c < ' ' || (c < 128 && DELIMITERS[c]);
+    }
+
+
+    /**
+     * Fast path for numbers: convert a plain decimal integer (by far the most
+     * common kind in Twitter's json) directly, rather than by trying Integer,
+     * then Long, and catching the exceptions. 64-bit ids become Longs.
+     *
+     * @param s Unquoted text, starting with a digit or sign.
+     * @return An Integer if it fits, else a Long, or null if s is not a
+     * plain decimal integer which fits in a long (e.g. it has a fraction,
+     * exponent or leading zero).
+     */
+    static Number parseInteger(String s) {
+        int n = s.length();
+        int i = 0;
+        boolean negative = s.charAt(0) == '-';
+        if (negative) {
+            i = 1;
+        }
+        if (i == n || n - i > 19 || (s.charAt(i) == '0' && n - i > 1)) {
+            return null;
+        }
+        // accumulate negatively, so that Long.MIN_VALUE fits
+        long v = 0;
+        for (; i < n; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return null;
+            }
+            if (v < (Long.MIN_VALUE + digit) / 10) {
+                // overflow
+                return null;
+            }
+            v = v * 10 - digit;
+        }
+        if ( ! negative) {
+            if (v == Long.MIN_VALUE) {
+                return null;
+            }
+            v = -v;
+        }
+        if (v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE) {
+            return Integer.valueOf((int) v);
+        }
+        return Long.valueOf(v);
+    }
+
+
     /**
      * Skip characters until the next character is the requested character.
      * If the requested character is not found, no characters are skipped.
+     * When reading from a stream, only the next 8192 characters are searched.
      * @param to A character to skip to.
      * @return The requested character, or zero if the requested character
      * is not found.
      */
     public char skipTo(char to) {
+        if (this.myReader != null) {
+            return skipToInReader(to);
+        }
         char c;
         int index = this.myIndex;
         do {
@@ -430,6 +704,9 @@ public class JSONTokener {
      * @param to A string to skip past.
      */
     public boolean skipPast(String to) {
+        if (this.myReader != null) {
+            return skipPastInReader(to);
+        }
         this.myIndex = this.mySource.indexOf(to, this.myIndex);
         if (this.myIndex < 0) {
             this.myIndex = this.mySource.length();
@@ -441,6 +718,69 @@ public class JSONTokener {
     }
 
 
+    /**
+     * skipTo() for a stream: uses mark/reset to undo a failed skip, so gives
+     * up after {@link #SKIP_TO_LIMIT} characters.
+     */
+    private char skipToInReader(char to) {
+        int index = this.myIndex;
+        char previous = this.myPrevious;
+        boolean usePrevious = this.myUsePrevious;
+        try {
+            this.myReader.mark(SKIP_TO_LIMIT);
+            // a character stepped back over comes from myPrevious, not the reader
+            int read = usePrevious ? -1 : 0;
+            char c;
+            do {
+                c = read < SKIP_TO_LIMIT ? next() : 0;
+                read++;
+                if (c == 0) {
+                    this.myReader.reset();
+                    this.myIndex = index;
+                    this.myPrevious = previous;
+                    this.myUsePrevious = usePrevious;
+                    return c;
+                }
+            } while (c != to);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        back();
+        return to;
+    }
+
+
+    /**
+     * skipPast() for a stream: compares the last to.length() characters read
+     * against the target.
+     */
+    private boolean skipPastInReader(String to) {
+        int n = to.length();
+        char[] window = new char[n];
+        int read = 0;
+        for (;;) {
+            if (read >= n) {
+                boolean match = true;
+                for (int i = 0; i < n; i++) {
+                    if (window[(read + i) % n] != to.charAt(i)) {
+                        match = false;
+                        break;
+                    }
+                }
+                if (match) {
+                    return true;
+                }
+            }
+            char c = next();
+            if (c == 0 && ! more()) {
+                return false;
+            }
+            window[read % n] = c;
+            read++;
+        }
+    }
+
+
     /**
      * Make a JSONException to signal a syntax error.
      *
@@ -459,6 +799,9 @@ public class JSONTokener {
      */
     @Override
 	public String toString() {
+        if (this.myReader != null) {
+            return " at character " + this.myIndex + " of stream";
+        }
         return " at character " + this.myIndex + " of " + this.mySource;
     }
 }
\ No newline at end of file
@@ -118,7 +118,9 @@ public abstract class AStream implements Closeable {
 	}
 
 	/**
-	 * Start dropping messages after this.
+	 * Start dropping messages after this. The oldest message is dropped to
+	 * make room for each new one. Changes apply to buffers made after the
+	 * change, i.e. after the next pop.
 	 */
 	public static int MAX_BUFFER = 10000;
 
@@ -139,23 +141,41 @@ public abstract class AStream implements Closeable {
 		if (incoming.size() < MAX_BUFFER)
 			return 0;
 		int chop = MAX_BUFFER / 10;
-		for (int i = 0; i < chop; i++) {
-			Object gone = incoming.remove(0);
-			// We're dropping a tweet, so let's log something of that
-			try {
-				if (gone instanceof ITweet) {
-					ITweet twt = (ITweet) gone;
-					BigInteger id = twt.getId();
-					String who = twt.getUser().getScreenName();
-					InternalUtils.log("twitter.forget", id+" @"+who+": "+twt.getText());	
-				}
-			} catch(Exception ex) {
-				// ignore -- paranoia really about nulls
-			}
+		// one shift, rather than chop of them
+		List gone = incoming.subList(0, chop);
+		for (Object g : gone) {
+			logForget(g);
 		}
+		gone.clear();
 		return chop;
 	}
 
+	/**
+	 * Add to a buffer, counting anything which gets pushed out.
+	 * @return 1 if an old item was dropped to make room, else 0
+	 */
+	static <T> int forgetIfFull(EventBuffer<T> buffer, T item) {
+		T gone = buffer.push(item);
+		if (gone == null)
+			return 0;
+		logForget(gone);
+		return 1;
+	}
+
+	private static void logForget(Object gone) {
+		// We're dropping a tweet, so let's log something of that
+		try {
+			if (gone instanceof ITweet) {
+				ITweet twt = (ITweet) gone;
+				BigInteger id = twt.getId();
+				String who = twt.getUser().getScreenName();
+				InternalUtils.log("twitter.forget", id+" @"+who+": "+twt.getText());	
+			}
+		} catch(Exception ex) {
+			// ignore -- paranoia really about nulls
+		}
+	}
+
 	/**
 	 * A blob of text has come in off the wires... what is it?
 	 * @param jo
@@ -226,7 +246,7 @@ public abstract class AStream implements Closeable {
 
 	final IHttpClient client;
 
-	List<TwitterEvent> events = new ArrayList();
+	EventBuffer<TwitterEvent> events = new EventBuffer(MAX_BUFFER, false);
 
 	boolean fillInFollows = true;
 
@@ -261,9 +281,12 @@ public abstract class AStream implements Closeable {
 
 	InputStream stream;
 
-	List<Object[]> sysEvents = new ArrayList();
+	EventBuffer<Object[]> sysEvents = new EventBuffer(MAX_BUFFER, false);
 
-	List<ITweet> tweets = new ArrayList();
+	/**
+	 * Indexed, for de-duplication and deletes
+	 */
+	EventBuffer<ITweet> tweets = new EventBuffer(MAX_BUFFER, true);
 
 	/**
 	 * default: false
@@ -350,6 +373,7 @@ public abstract class AStream implements Closeable {
 				}
 				readThread.interrupt();
 			}
+			forgotten += readThread.popForgotten();
 			readThread = null;
 		}
 		InternalUtils.close(stream);
@@ -509,6 +533,9 @@ public abstract class AStream implements Closeable {
 	 * @return the number of messages (which could be tweets, events, or system
 	 *         events) which the stream has dropped to stay within it's (very
 	 *         generous) bounds.
+	 *         This counts each message dropped, including ones dropped before
+	 *         they were read off the connection, and ones Twitter said it
+	 *         skipped ("limit" system events).
 	 *         <p>
 	 *         Best practice is to NOT rely on this for memory management. You
 	 *         should call {@link #popEvents()}, {@link #popSystemEvents()} and
@@ -608,7 +635,7 @@ public abstract class AStream implements Closeable {
 	 */
 	public final List<TwitterEvent> popEvents() {
 		List evs = getEvents();
-		events = new ArrayList();
+		events = new EventBuffer(MAX_BUFFER, false);
 		return evs;
 	}
 
@@ -627,7 +654,7 @@ public abstract class AStream implements Closeable {
 	 */
 	public final List<Object[]> popSystemEvents() {
 		List<Object[]> evs = getSystemEvents();
-		sysEvents = new ArrayList();
+		sysEvents = new EventBuffer(MAX_BUFFER, false);
 		return evs;
 	}
 
@@ -639,14 +666,14 @@ public abstract class AStream implements Closeable {
 	 */
 	public final List<ITweet> popTweets() {
 		List<ITweet> ts = getTweets();
-		// TODO is 
-		tweets = new ArrayList();
+		tweets = new EventBuffer(MAX_BUFFER, true);
 		return ts;
 	}
 
 	private final void read() {
 		if (readThread!=null) {
 			String[] jsons = readThread.popJsons();
+			forgotten += readThread.popForgotten();
 			for (String json : jsons) {
 				try {
 					read2(json);
@@ -691,11 +718,11 @@ public abstract class AStream implements Closeable {
 		// tweets & DMs
 		if (object instanceof ITweet) {
 			ITweet tweet = (ITweet) object;
-			// de-duplicate a bit locally (this is rare -- perhaps don't
-			// bother??)
+			// de-duplicate a bit locally (this is rare, but cheap with the
+			// index)
 			if (tweets.contains(tweet))
 				return;
-			tweets.add(tweet);
+			forgotten += forgetIfFull(tweets, tweet);
 			// track the last Status id for tracking outages 
 			BigInteger id = ((ITweet) tweet).getId();
 			if (tweet instanceof Status) {				
@@ -708,15 +735,13 @@ public abstract class AStream implements Closeable {
 					setLastDMId(id);
 				}
 			}
-			forgotten += forgetIfFull(tweets);
 			return;
 		}
 
 		// Events
 		if (object instanceof TwitterEvent) {
 			TwitterEvent event = (TwitterEvent) object;
-			events.add(event);
-			forgotten += forgetIfFull(events);
+			forgotten += forgetIfFull(events, event);
 			return;
 		}
 		// Deletes and other system events, like limits
@@ -726,7 +751,8 @@ public abstract class AStream implements Closeable {
 			// ...delete?
 			if ("delete".equals(sysEvent[0])) {
 				ITweet deadTweet = (ITweet) sysEvent[1];
-				// prune local (which is unlikely to do much)
+				// prune local (which is unlikely to do much -- the index makes
+				// a miss cheap)
 				boolean pruned = tweets.remove(deadTweet);
 				if (pruned) return; // No need to keep this event around
 			} else if ("limit".equals(sysEvent[0])) {
@@ -735,8 +761,7 @@ public abstract class AStream implements Closeable {
 				forgotten += cnt;
 			}
 			// store the sys-event
-			sysEvents.add(sysEvent);
-			forgotten += forgetIfFull(sysEvents);
+			forgotten += forgetIfFull(sysEvents, sysEvent);
 			return;
 		}
 		// ??
@@ -778,9 +803,8 @@ public abstract class AStream implements Closeable {
 		for (User nf : newFriends) {
 			TwitterEvent e = new TwitterEvent(new Date(), you,
 					TwitterEvent.Type.FOLLOW, nf, null);
-			events.add(e);
+			forgotten += forgetIfFull(events, e);
 		}
-		forgotten += forgetIfFull(events);
 	}
 
 	/**
@@ -818,7 +842,7 @@ public abstract class AStream implements Closeable {
 	 */
 	void addSysEvent(Object[] sysEvent) {
 		InternalUtils.log(LOGTAG, "sysEvent: "+InternalUtils.str(sysEvent)+" for "+this);
-		sysEvents.add(sysEvent);
+		forgotten += forgetIfFull(sysEvents, sysEvent);
 		if (listeners.size()==0) return;
 		synchronized (listeners) {
 			try {
@@ -929,15 +953,15 @@ final class StreamGobbler extends Thread {
 	Exception ex;
 
 	/**
-	 * count of the number of tweets this gobbler had to drop due to buffer size
+	 * count of the number of tweets this gobbler had to drop due to buffer size,
+	 * since the last {@link #popForgotten()}
 	 */
-	int forgotten;
+	private int forgotten;
 
 	/**
 	 * Use synchronised blocks when editing this
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private ArrayList<String> jsons = new ArrayList();
+	private EventBuffer<String> jsons = new EventBuffer<String>(AStream.MAX_BUFFER, false);
 
 //	long offTime;
 
@@ -973,14 +997,22 @@ final class StreamGobbler extends Thread {
 	 * 
 	 * @return
 	 */
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public synchronized String[] popJsons() {
 		String[] arr = jsons.toArray(new String[jsons.size()]);
 		// jsons.clear(); This wasn't really working for good memory management
-		jsons = new ArrayList();
+		jsons = new EventBuffer<String>(AStream.MAX_BUFFER, false);
 		return arr;
 	}
 
+	/**
+	 * @return the number of jsons dropped since the last call
+	 */
+	synchronized int popForgotten() {
+		int n = forgotten;
+		forgotten = 0;
+		return n;
+	}
+
 	private void readJson(BufferedReader br, int len) throws IOException {
 		// Read len chars from the stream
 		assert len > 0;
@@ -998,9 +1030,8 @@ final class StreamGobbler extends Thread {
 		String json = new String(sb);
 		if ( ! stream.listenersOnly) {
 			synchronized (this) {
-				jsons.add(json);
-				// forget a batch?
-				forgotten += AStream.forgetIfFull(jsons);
+				// forget the oldest?
+				forgotten += AStream.forgetIfFull(jsons, json);
 			}
 		}
 
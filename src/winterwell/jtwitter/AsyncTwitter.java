@@ -0,0 +1,181 @@
+package winterwell.jtwitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import winterwell.json.JSONException;
+import winterwell.json.JSONObject;
+import winterwell.jtwitter.Twitter.IHttpClient;
+
+/**
+ * Non-blocking versions of the most used {@link Twitter} methods. Each returns
+ * a CompletableFuture which completes with the same objects the blocking
+ * method would return, or exceptionally with the same TwitterException.
+ * <p>
+ * With a {@link HttpTransport} set on the http client, no thread is
+ * blocked while a request is in flight, so hundreds of requests can be
+ * outstanding on a handful of threads. Without one, each call borrows a
+ * thread from the common pool.
+ * <p>
+ * Calls can be chained without blocking, e.g. to get the author of a tweet:
+ *
+ * <pre>
+ * <code>
+ * 	jtwit.async().getStatus(id).thenApply(Status::getUser)
+ * </code>
+ * </pre>
+ *
+ * Uses the settings (since-id, search location, etc.) of the Twitter object
+ * it came from. Unlike the blocking methods, lists are a single page:
+ * {@link Twitter#setMaxResults(int)} paging is not supported.
+ *
+ * @see Twitter#async()
+ */
+public class AsyncTwitter {
+
+	private final IHttpClient http;
+
+	private final Twitter jtwit;
+
+	AsyncTwitter(Twitter jtwit) {
+		this.jtwit = jtwit;
+		this.http = jtwit.getHttpClient();
+	}
+
+	/**
+	 * @see Twitter#getMentions()
+	 */
+	public CompletableFuture<List<Status>> getMentions() {
+		return getPage(jtwit.TWITTER_URL + "/statuses/mentions_timeline.json",
+				jtwit.standardishParameters(), true, json -> jtwit.dateFilter(Status.getStatuses(json)));
+	}
+
+	/**
+	 * @see Twitter#getStatus(Number)
+	 */
+	public CompletableFuture<Status> getStatus(Number id) {
+		Map<String, String> vars = jtwit.tweetEntities ? asMap("include_entities", "1") : null;
+		return getPage(jtwit.TWITTER_URL + "/statuses/show/" + id + ".json",
+				vars, InternalUtils.authoriseIn11(jtwit), json -> new Status(new JSONObject(json), null));
+	}
+
+	/**
+	 * @see Twitter#updateStatus(String)
+	 */
+	public CompletableFuture<Status> updateStatus(String statusText) {
+		return updateStatus(statusText, null);
+	}
+
+	/**
+	 * @param inReplyToStatusId
+	 *            Can be null
+	 * @see Twitter#updateStatus(String, Number)
+	 */
+	public CompletableFuture<Status> updateStatus(String statusText, Number inReplyToStatusId) {
+		Map<String, String> vars;
+		try {
+			vars = jtwit.updateStatus2_vars(statusText, inReplyToStatusId, false);
+		} catch (RuntimeException e) {
+			return failed(e);
+		}
+		return post(jtwit.TWITTER_URL + "/statuses/update.json", vars,
+				json -> new Status(new JSONObject(json), null));
+	}
+
+	/**
+	 * @see Twitter_Users#show(Number)
+	 */
+	public CompletableFuture<User> show(Number userId) {
+		Map<String, String> vars = asMap("user_id", userId.toString());
+		return getPage(jtwit.TWITTER_URL + "/users/show.json", vars,
+				http.canAuthenticate(), json -> new User(new JSONObject(json), null));
+	}
+
+	/**
+	 * @see Twitter_Users#show(String)
+	 */
+	public CompletableFuture<User> show(String screenName) {
+		Map<String, String> vars = asMap("screen_name", screenName);
+		return getPage(jtwit.TWITTER_URL + "/users/show.json", vars,
+				http.canAuthenticate(), json -> new User(new JSONObject(json), null));
+	}
+
+	/**
+	 * One page (up to 100) of search results.
+	 *
+	 * @see Twitter#search(String)
+	 */
+	public CompletableFuture<List<Status>> search(String searchTerm) {
+		if (searchTerm.length() > 1000) {
+			return failed(new TwitterException.E406("Search query too long: " + searchTerm));
+		}
+		Map<String, String> vars = jtwit.getSearchParams(searchTerm, 100);
+		CompletableFuture<List<Status>> results = getPage(jtwit.TWITTER_URL + "/search/tweets.json",
+				vars, true, json -> jtwit.dateFilter(Status.getStatusesFromSearch(jtwit, json)));
+		// Try to send a more helpful error message, as search() does
+		return results.exceptionally(ex -> {
+			Throwable cause = unwrap(ex);
+			if (cause instanceof TwitterException.E403 && cause.getMessage() != null
+					&& cause.getMessage().startsWith("code 195:")) {
+				throw new TwitterException.E406("Search too long/complex: " + cause.getMessage());
+			}
+			throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+		});
+	}
+
+	private <X> CompletableFuture<X> getPage(String url, Map<String, String> vars,
+			boolean authenticate, Function<String, X> parser) {
+		CompletableFuture<String> page;
+		if (http instanceof URLConnectionHttpClient) {
+			page = ((URLConnectionHttpClient) http).getPageAsync(url, vars, authenticate);
+		} else {
+			page = CompletableFuture.supplyAsync(() -> http.getPage(url, vars, authenticate));
+		}
+		return page.thenApply(parse(parser));
+	}
+
+	private <X> CompletableFuture<X> post(String url, Map<String, String> vars,
+			Function<String, X> parser) {
+		CompletableFuture<String> page;
+		if (http instanceof URLConnectionHttpClient) {
+			page = ((URLConnectionHttpClient) http).postAsync(url, vars, true);
+		} else {
+			page = CompletableFuture.supplyAsync(() -> http.post(url, vars, true));
+		}
+		return page.thenApply(parse(parser));
+	}
+
+	private static <X> Function<String, X> parse(final Function<String, X> parser) {
+		return json -> {
+			try {
+				return parser.apply(json);
+			} catch (JSONException e) {
+				throw new TwitterException.Parsing(json, e);
+			}
+		};
+	}
+
+	/**
+	 * {@link InternalUtils#asMap(Object...)}, typed
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, String> asMap(Object... keyValuePairs) {
+		return InternalUtils.asMap(keyValuePairs);
+	}
+
+	private static Throwable unwrap(Throwable ex) {
+		while (ex instanceof CompletionException && ex.getCause() != null) {
+			ex = ex.getCause();
+		}
+		return ex;
+	}
+
+	private static <X> CompletableFuture<X> failed(Throwable ex) {
+		CompletableFuture<X> future = new CompletableFuture<X>();
+		future.completeExceptionally(ex);
+		return future;
+	}
+}
@@ -0,0 +1,176 @@
+package winterwell.jtwitter;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stops calls to a resource (e.g. {@link RateLimit#RES_HOME_TIMELINE}) which
+ * keeps failing, so that a Twitter outage costs an immediate
+ * {@link TwitterException.CircuitOpen} rather than a timeout per call, and
+ * Twitter gets a chance to recover.
+ * <p>
+ * After a run of server or network errors the breaker "trips" and stays open
+ * for a while. Then it lets a single call through: if that works the breaker
+ * closes again, otherwise it re-opens. Other errors (404 etc.) mean the
+ * resource is answering, and count as success.
+ * <p>
+ * Thread safe. One breaker per resource, shared by copies of a client.
+ *
+ * @see URLConnectionHttpClient#setCircuitBreaker(int, long)
+ * @see URLConnectionHttpClient#getCircuitBreaker(String)
+ */
+public final class CircuitBreaker implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	public static enum State {
+		/** Normal */
+		CLOSED,
+		/** Failing fast */
+		OPEN,
+		/** Letting one call through to see if the resource has recovered */
+		HALF_OPEN
+	}
+
+	private final String resource;
+
+	private final int failureThreshold;
+
+	private final long openNanos;
+
+	private State state = State.CLOSED;
+
+	private int failures;
+
+	private long openedAt;
+
+	private boolean trialInFlight;
+
+	private long trips;
+
+	private long rejections;
+
+	/**
+	 * @param failureThreshold
+	 *            Consecutive failures to trip on
+	 * @param openMillis
+	 *            How long to fail fast before trying again
+	 */
+	CircuitBreaker(String resource, int failureThreshold, long openMillis) {
+		this.resource = resource;
+		this.failureThreshold = failureThreshold;
+		this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+	}
+
+	/**
+	 * Call before each attempt.
+	 *
+	 * @throws TwitterException.CircuitOpen
+	 *             if the call should not be made
+	 */
+	synchronized void acquire() throws TwitterException.CircuitOpen {
+		if (state == State.CLOSED)
+			return;
+		long waited = System.nanoTime() - openedAt;
+		if (state == State.OPEN && waited >= openNanos) {
+			state = State.HALF_OPEN;
+		}
+		if (state == State.HALF_OPEN && !trialInFlight) {
+			trialInFlight = true;
+			return;
+		}
+		rejections++;
+		long wait = Math.max(0, TimeUnit.NANOSECONDS.toSeconds(openNanos - waited));
+		throw new TwitterException.CircuitOpen("Circuit open for " + resource
+				+ " after " + failures + " failures - retry in " + wait + "s");
+	}
+
+	/**
+	 * The resource answered.
+	 */
+	synchronized void onSuccess() {
+		state = State.CLOSED;
+		failures = 0;
+		trialInFlight = false;
+	}
+
+	/**
+	 * A server or network error.
+	 */
+	synchronized void onFailure() {
+		trialInFlight = false;
+		failures++;
+		if (state == State.HALF_OPEN
+				|| (state == State.CLOSED && failures >= failureThreshold)) {
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+			trips++;
+		}
+	}
+
+	/**
+	 * The call was not made after all (e.g. a pre-emptive rate limit).
+	 */
+	synchronized void onCancel() {
+		trialInFlight = false;
+	}
+
+	/**
+	 * Record the outcome of an attempt.
+	 *
+	 * @param ex
+	 *            null for success
+	 */
+	void record(TwitterException ex) {
+		if (ex == null) {
+			onSuccess();
+		} else if (ex instanceof TwitterException.PreEmptiveRateLimit) {
+			onCancel();
+		} else if (ex instanceof TwitterException.E50X
+				|| ex instanceof TwitterException.IO) {
+			onFailure();
+		} else {
+			onSuccess();
+		}
+	}
+
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return the state. An open breaker which would now let a trial call
+	 *         through is reported as HALF_OPEN.
+	 */
+	public synchronized State getState() {
+		if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos)
+			return State.HALF_OPEN;
+		return state;
+	}
+
+	/**
+	 * @return consecutive failures so far
+	 */
+	public synchronized int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return how many times this breaker has opened
+	 */
+	public synchronized long getTrips() {
+		return trips;
+	}
+
+	/**
+	 * @return calls failed fast
+	 */
+	public synchronized long getRejections() {
+		return rejections;
+	}
+
+	@Override
+	public String toString() {
+		return "CircuitBreaker[" + resource + " " + getState() + " trips:"
+				+ getTrips() + " rejections:" + getRejections() + "]";
+	}
+}
@@ -0,0 +1,209 @@
+package winterwell.jtwitter;
+
+import java.util.AbstractList;
+import java.util.HashSet;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The bounded buffer behind {@link AStream#getTweets()} and friends: a ring of
+ * at most capacity items, oldest first. Adding to a full buffer pushes the
+ * oldest item out, at constant cost -- rather than shuffling a whole list
+ * along, which is what hurt with a busy stream.
+ * <p>
+ * An indexed buffer also keeps a hash set of its items, so contains() and
+ * remove(Object) are constant time (tweets hash by id), and it will not hold
+ * the same item twice. Other removals are linear, but rare.
+ * <p>
+ * The backing array grows as needed, so an empty buffer is cheap. Not thread
+ * safe.
+ */
+final class EventBuffer<T> extends AbstractList<T> implements RandomAccess {
+
+	private final int capacity;
+
+	private Object[] items;
+
+	/**
+	 * Slot of the oldest item
+	 */
+	private int head;
+
+	private int size;
+
+	private final Set<Object> index;
+
+	/**
+	 * @param capacity
+	 *            The most items held
+	 * @param indexed
+	 *            If true, keep a hash set of the items for contains() and
+	 *            remove(Object), and refuse duplicates.
+	 */
+	EventBuffer(int capacity, boolean indexed) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("capacity " + capacity);
+		this.capacity = capacity;
+		this.items = new Object[Math.min(capacity, 16)];
+		this.index = indexed ? new HashSet<Object>() : null;
+	}
+
+	/**
+	 * Add to the end, pushing out the oldest item if full.
+	 *
+	 * @return the item pushed out, or null. Also null if item was refused as a
+	 *         duplicate.
+	 */
+	T push(T item) {
+		if (item == null)
+			throw new NullPointerException();
+		if (index != null && !index.add(item))
+			return null;
+		modCount++;
+		T gone = null;
+		if (size == capacity) {
+			gone = elementAt(head);
+			items[head] = null;
+			head = next(head);
+			size--;
+			if (index != null) {
+				index.remove(gone);
+			}
+		} else if (size == items.length) {
+			grow();
+		}
+		items[slot(size)] = item;
+		size++;
+		return gone;
+	}
+
+	/**
+	 * As {@link #push(Object)}, ignoring anything pushed out.
+	 *
+	 * @return false if this is indexed and already holds item
+	 */
+	@Override
+	public boolean add(T item) {
+		if (index != null && index.contains(item))
+			return false;
+		push(item);
+		return true;
+	}
+
+	@Override
+	public T get(int i) {
+		checkIndex(i);
+		return elementAt(slot(i));
+	}
+
+	@Override
+	public T set(int i, T item) {
+		checkIndex(i);
+		if (item == null)
+			throw new NullPointerException();
+		int s = slot(i);
+		T old = elementAt(s);
+		if (index != null) {
+			if (!old.equals(item) && index.contains(item))
+				throw new IllegalArgumentException("duplicate: " + item);
+			index.remove(old);
+			index.add(item);
+		}
+		items[s] = item;
+		return old;
+	}
+
+	@Override
+	public T remove(int i) {
+		checkIndex(i);
+		modCount++;
+		T old = elementAt(slot(i));
+		// close the gap from whichever end is nearer
+		if (i < size / 2) {
+			for (int j = i; j > 0; j--) {
+				items[slot(j)] = items[slot(j - 1)];
+			}
+			items[head] = null;
+			head = next(head);
+		} else {
+			for (int j = i; j < size - 1; j++) {
+				items[slot(j)] = items[slot(j + 1)];
+			}
+			items[slot(size - 1)] = null;
+		}
+		size--;
+		if (index != null) {
+			index.remove(old);
+		}
+		return old;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		// the index means we don't need to look for what isn't there
+		if (index != null && !index.contains(o))
+			return false;
+		return super.remove(o);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (index != null)
+			return index.contains(o);
+		return super.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		for (int i = 0; i < size; i++) {
+			items[slot(i)] = null;
+		}
+		head = 0;
+		size = 0;
+		if (index != null) {
+			index.clear();
+		}
+	}
+
+	int getCapacity() {
+		return capacity;
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException(i + " of " + size);
+	}
+
+	@SuppressWarnings("unchecked")
+	private T elementAt(int s) {
+		return (T) items[s];
+	}
+
+	private int slot(int i) {
+		int s = head + i;
+		return s < items.length ? s : s - items.length;
+	}
+
+	private int next(int s) {
+		return s + 1 == items.length ? 0 : s + 1;
+	}
+
+	/**
+	 * Double the backing array (up to capacity), unrolling the ring.
+	 */
+	private void grow() {
+		Object[] bigger = new Object[(int) Math.min(capacity,
+				2L * items.length)];
+		int tail = items.length - head;
+		System.arraycopy(items, head, bigger, 0, tail);
+		System.arraycopy(items, 0, bigger, tail, head);
+		items = bigger;
+		head = 0;
+	}
+}
@@ -0,0 +1,216 @@
+package winterwell.jtwitter;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An optional cache of GET responses for a {@link URLConnectionHttpClient}, so
+ * that asking again for data which hasn't changed costs less -- or nothing.
+ * <p>
+ * Each rate-limit resource (e.g. {@link RateLimit#RES_USERS_SHOW1}) can be
+ * given a time-to-live. Within it, a repeat request is answered from the cache
+ * without a call, so it costs neither bandwidth nor rate-limit budget. After
+ * it, if Twitter sent an ETag or Last-Modified header, the request is made
+ * conditional: a "304 Not Modified" answer is served from the cache, without
+ * the body being sent again.
+ * <p>
+ * Only successful GETs are cached, keyed by the full url. Responses depend on
+ * who is asking, so don't share a cache between clients for different
+ * accounts. Thread safe.
+ * <p>
+ * Example Usage:
+ *
+ * <pre>
+ * <code>
+ * 	HttpCache cache = new HttpCache(1000);
+ * 	cache.setTTL(RateLimit.RES_USERS_SHOW1, TimeUnit.MINUTES.toMillis(5));
+ * 	client.setCache(cache);
+ * 	</code>
+ * </pre>
+ *
+ * @see URLConnectionHttpClient#setCache(HttpCache)
+ */
+public class HttpCache {
+
+	private static final class Entry {
+		final HttpResult result;
+		final String resource;
+		final String etag;
+		final String lastModified;
+		volatile long storedAt;
+
+		Entry(HttpResult result, String etag, String lastModified) {
+			this.result = result;
+			this.resource = result.getResource();
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.storedAt = System.nanoTime();
+		}
+	}
+
+	private final Map<String, Entry> entries;
+
+	private final Map<String, Long> ttls = new HashMap<String, Long>();
+
+	private long defaultTTL;
+
+	private long hits;
+
+	private long revalidations;
+
+	private long misses;
+
+	/**
+	 * @param maxEntries
+	 *            The least recently used responses are dropped beyond this.
+	 */
+	@SuppressWarnings("serial")
+	public HttpCache(final int maxEntries) {
+		entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, HttpCache.Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @param resource
+	 *            E.g. {@link RateLimit#RES_MENTIONS}
+	 * @param ttlMillis
+	 *            How long a response can be served without asking Twitter. 0
+	 *            means always ask (conditionally, if possible).
+	 * @return this
+	 */
+	public synchronized HttpCache setTTL(String resource, long ttlMillis) {
+		ttls.put(resource, ttlMillis);
+		return this;
+	}
+
+	/**
+	 * @param ttlMillis
+	 *            The time-to-live for resources without their own. 0 by
+	 *            default.
+	 * @return this
+	 */
+	public synchronized HttpCache setDefaultTTL(long ttlMillis) {
+		defaultTTL = ttlMillis;
+		return this;
+	}
+
+	public synchronized long getTTL(String resource) {
+		Long ttl = resource == null ? null : ttls.get(resource);
+		return ttl == null ? defaultTTL : ttl;
+	}
+
+	static String key(String fullUrl, boolean authenticate) {
+		return authenticate ? fullUrl : "anon " + fullUrl;
+	}
+
+	/**
+	 * @return the cached response, if it is young enough to use without asking
+	 *         Twitter. Else null.
+	 */
+	synchronized HttpResult getFresh(String key) {
+		Entry e = entries.get(key);
+		// a stale entry is counted as a revalidation or a miss later
+		if (e == null
+				|| System.nanoTime() - e.storedAt >= TimeUnit.MILLISECONDS
+						.toNanos(getTTL(e.resource))) {
+			return null;
+		}
+		hits++;
+		return e.result;
+	}
+
+	/**
+	 * @return headers to make the request conditional on the cached response
+	 *         having changed, or null
+	 */
+	synchronized Map<String, String> getValidators(String key) {
+		Entry e = entries.get(key);
+		if (e == null || (e.etag == null && e.lastModified == null)) {
+			return null;
+		}
+		Map<String, String> validators = new HashMap<String, String>(2);
+		if (e.etag != null) {
+			validators.put("If-None-Match", e.etag);
+		}
+		if (e.lastModified != null) {
+			validators.put("If-Modified-Since", e.lastModified);
+		}
+		return validators;
+	}
+
+	/**
+	 * Record the response to a (possibly conditional) request.
+	 *
+	 * @return the response to use: the cached one if Twitter said
+	 *         "304 Not Modified", else result. null if the cached response
+	 *         has been dropped meanwhile, in which case ask again without
+	 *         validators.
+	 */
+	synchronized HttpResult received(String key, HttpResult result) {
+		if (result.getCode() == 304) {
+			Entry e = entries.get(key);
+			if (e == null) {
+				return null;
+			}
+			e.storedAt = System.nanoTime();
+			revalidations++;
+			return e.result;
+		}
+		if (result.getCode() != 200) {
+			return result;
+		}
+		misses++;
+		String etag = result.getHeader("ETag");
+		String lastModified = result.getHeader("Last-Modified");
+		if (etag == null && lastModified == null
+				&& getTTL(result.getResource()) <= 0) {
+			// can never be used
+			entries.remove(key);
+		} else {
+			entries.put(key, new Entry(result, etag, lastModified));
+		}
+		return result;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return requests answered from the cache without a call
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * @return requests answered "304 Not Modified", and so from the cache
+	 */
+	public synchronized long getRevalidations() {
+		return revalidations;
+	}
+
+	/**
+	 * @return requests which had to fetch the whole response
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "HttpCache[size:" + entries.size() + " hits:" + hits
+				+ " revalidations:" + revalidations + " misses:" + misses + "]";
+	}
+}
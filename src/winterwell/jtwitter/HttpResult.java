@@ -0,0 +1,92 @@
+package winterwell.jtwitter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything about one successful http call: the body, plus the status,
+ * headers, rate limit and timing that went with it.
+ * <p>
+ * Each call gets its own HttpResult, so threads sharing one http client (and
+ * one {@link Twitter}) never see each other's headers. Immutable.
+ *
+ * @see URLConnectionHttpClient#getPageResult(String, Map, boolean)
+ * @see URLConnectionHttpClient#postResult(String, Map, boolean)
+ */
+public final class HttpResult {
+
+	private final String url;
+	private final int code;
+	private final Map<String, List<String>> headers;
+	private final String resource;
+	private final RateLimit rateLimit;
+	private final long elapsedMillis;
+	private final String body;
+
+	HttpResult(String url, int code, Map<String, List<String>> headers,
+			String resource, RateLimit rateLimit, long elapsedMillis, String body) {
+		this.url = url;
+		this.code = code;
+		this.headers = headers == null ? Collections.<String, List<String>>emptyMap()
+				: Collections.unmodifiableMap(headers);
+		this.resource = resource;
+		this.rateLimit = rateLimit;
+		this.elapsedMillis = elapsedMillis;
+		this.body = body;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	/**
+	 * @return the http status code
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the first value of the header, or null. Header names are
+	 *         case-insensitive.
+	 */
+	public String getHeader(String headerName) {
+		return URLConnectionHttpClient.getHeader(headers, headerName);
+	}
+
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * @return the rate-limit resource this call counted against, or null
+	 */
+	public String getResource() {
+		return resource;
+	}
+
+	/**
+	 * @return the rate limit reported with this response, or null if Twitter
+	 *         didn't send one
+	 */
+	public RateLimit getRateLimit() {
+		return rateLimit;
+	}
+
+	/**
+	 * @return time from sending the request to having read the whole body
+	 */
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	public String getBody() {
+		return body;
+	}
+
+	@Override
+	public String toString() {
+		return "HttpResult[" + code + " " + url + " " + elapsedMillis + "ms]";
+	}
+}
@@ -0,0 +1,61 @@
+package winterwell.jtwitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends the normal (non-streaming) REST calls of a
+ * {@link URLConnectionHttpClient}, in place of a fresh HttpURLConnection per
+ * call. Signing, error handling and rate-limit bookkeeping are done by the
+ * client, via its package methods.
+ * <p>
+ * The implementation, JavaNetHttpTransport, uses java.net.http, so it needs
+ * Java 11. It lives in the separate src-java11 source folder, so that this
+ * library still builds on Java 8, and is found at runtime by
+ * {@link #javaNetHttp()}.
+ *
+ * @see URLConnectionHttpClient#setTransport(HttpTransport)
+ */
+public interface HttpTransport {
+
+	/**
+	 * Make the request and wait for it.
+	 *
+	 * @param method
+	 *            GET or POST
+	 * @param requestHeaders
+	 *            Extra headers, e.g. If-None-Match. Can be null.
+	 * @return the response
+	 */
+	HttpResult send(URLConnectionHttpClient client, String method, String url,
+			Map<String, String> vars, boolean authenticate,
+			Map<String, String> requestHeaders) throws IOException;
+
+	/**
+	 * Make the request without blocking.
+	 *
+	 * @return a future which completes with the response, or with a
+	 *         TwitterException or IOException
+	 */
+	CompletableFuture<HttpResult> sendAsync(URLConnectionHttpClient client,
+			String method, String url, Map<String, String> vars,
+			boolean authenticate, Map<String, String> requestHeaders);
+
+	/**
+	 * @return a new java.net.http transport, or null if it isn't available
+	 *         (running on Java 8, or built without src-java11) -- in which
+	 *         case clients stick with HttpURLConnection.
+	 */
+	static HttpTransport javaNetHttp() {
+		try {
+			Class<?> impl = Class.forName("winterwell.jtwitter.JavaNetHttpTransport");
+			return (HttpTransport) impl.newInstance();
+		} catch (ClassNotFoundException | LinkageError e) {
+			return null;
+		} catch (InstantiationException | IllegalAccessException e) {
+			InternalUtils.log("jtwitter", e);
+			return null;
+		}
+	}
+}
@@ -1,15 +1,11 @@
 package winterwell.jtwitter;
 
-import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
-import java.io.Reader;
 import java.io.StringWriter;
-import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -17,7 +13,6 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URLEncoder;
 import java.nio.charset.Charset;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -41,6 +36,7 @@ import com.winterwell.jgeoplanet.IGeoCode;
 import com.winterwell.jgeoplanet.IPlace;
 import com.winterwell.jgeoplanet.Location;
 
+import oauth.signpost.PercentEncoder;
 import winterwell.json.JSONException;
 import winterwell.json.JSONObject;
 import winterwell.jtwitter.Twitter.ITweet;
@@ -245,18 +241,20 @@ public class InternalUtils {
 		}
 	}
 
-	@SuppressWarnings({ "deprecation" })
+	/**
+	 * @return x percent-encoded, the same way OAuth signing encodes it (so
+	 *         e.g. * is %2A and space is %20, as v1.1 wants)
+	 */
 	static String encode(Object x) {
-		String encd;
-		try {
-			encd = URLEncoder.encode(String.valueOf(x), "UTF-8");
-		} catch (UnsupportedEncodingException e) {
-			// This shouldn't happen as UTF-8 is standard
-			encd = URLEncoder.encode(String.valueOf(x));
-		}
-		// v1.1 doesn't like *
-		encd = encd.replace("*", "%2A");
-		return encd.replace("+", "%20");
+		return PercentEncoder.encode(String.valueOf(x));
+	}
+
+	/**
+	 * As {@link #encode(Object)}, but straight into out.
+	 * @return out
+	 */
+	static StringBuilder encode(Object x, StringBuilder out) {
+		return PercentEncoder.encode(String.valueOf(x), out);
 	}
 
 	/**
@@ -426,22 +424,63 @@ public class InternalUtils {
 	private static final Charset UTF_8 = Charset.forName("UTF-8");
 
 	/**
-	 * Use a buffered reader (preferably UTF-8) to extract the contents of the
-	 * given stream. Then close it.
+	 * Read buffers are kept (one per thread) for the next call, unless they
+	 * have grown bigger than this.
+	 */
+	private static final int MAX_KEPT_READ_BUFFER = 1024 * 1024;
+
+	private static final ThreadLocal<byte[]> readBuffer = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[16 * 1024];
+		}
+	};
+
+	/**
+	 * Extract the contents of the given stream as UTF-8 text. Then close it.
 	 */
 	protected static String read(InputStream inputStream) {
+		return read(inputStream, -1);
+	}
+
+	/**
+	 * Extract the contents of the given stream as UTF-8 text. Then close it.
+	 * <p>
+	 * The bytes are read in blocks into a per-thread buffer, and decoded in one
+	 * go, so a big timeline page costs one String and (after the first call on
+	 * a thread) no other allocation.
+	 * 
+	 * @param sizeHint
+	 *            The expected number of bytes, e.g. from Content-Length, or -1
+	 *            if not known. Need not be exact.
+	 */
+	static String read(InputStream inputStream, long sizeHint) {
 		try {
-			Reader reader = new InputStreamReader(inputStream, UTF_8);
-			reader = new BufferedReader(reader);
-			StringBuilder output = new StringBuilder();
+			byte[] buffer = readBuffer.get();
+			if (sizeHint > buffer.length && sizeHint <= Integer.MAX_VALUE - 8) {
+				buffer = new byte[(int) sizeHint];
+			}
+			int length = 0;
 			while (true) {
-				int c = reader.read();
-				if (c == -1) {
+				if (length == buffer.length) {
+					// Full -- but don't grow just to find the end of the stream
+					int b = inputStream.read();
+					if (b == -1) {
+						break;
+					}
+					buffer = Arrays.copyOf(buffer, buffer.length * 2);
+					buffer[length++] = (byte) b;
+				}
+				int n = inputStream.read(buffer, length, buffer.length - length);
+				if (n == -1) {
 					break;
 				}
-				output.append((char) c);
+				length += n;
+			}
+			if (buffer.length <= MAX_KEPT_READ_BUFFER) {
+				readBuffer.set(buffer);
 			}
-			return output.toString();
+			return new String(buffer, 0, length, UTF_8);
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		} finally {
@@ -102,13 +102,13 @@ public final class Message implements ITweet {
 		if(senderJSON == null) {
 			senderJSON = obj.getJSONObject("user");
 		}
-		sender = new User(senderJSON, null);
+		sender = UserCache.getShared().intern(senderJSON);
 		
 		// recipient - for messages you sent
 		Object recip = obj.opt("recipient");
 		if (recip instanceof JSONObject) { // Note JSONObject.has is dangerously
 											// misleading
-			recipient = new User((JSONObject) recip, null);
+			recipient = UserCache.getShared().intern((JSONObject) recip);
 		} else {
 			recipient = null;
 		}
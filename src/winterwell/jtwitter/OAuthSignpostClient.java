@@ -442,6 +442,16 @@ public class OAuthSignpostClient extends URLConnectionHttpClient implements
 		}
 	}
 
+	@Override
+	protected void setAuthentication(HttpRequest request) {
+		try {
+			// sign the request
+			consumer.sign(request);
+		} catch (OAuthException e) {
+			throw new TwitterException(e);
+		}
+	}
+
 	/**
 	 * Set the authorisation code (aka the verifier).
 	 * 
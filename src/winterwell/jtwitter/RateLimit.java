@@ -1,6 +1,8 @@
 package winterwell.jtwitter;
 
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import winterwell.json.JSONObject;
 
@@ -28,10 +30,13 @@ public final class RateLimit {
 	public static final String RES_MENTIONS = "/statuses/mentions_timeline";
 	public static final String RES_SEARCH = "/search/tweets";
 	public static final String RES_STATUS_SHOW = "/statuses/show";
+	public static final String RES_STATUS_LOOKUP = "/statuses/lookup";
 	public static final String RES_USERS_SEARCH = "/users/search";
 	public static final String RES_FRIENDSHIPS_SHOW = "/friendships/show";
 	public static final String RES_TRENDS = "/trends/place";
 	public static final String RES_LISTS_SHOW = "/lists/show";
+	public static final String RES_FOLLOWER_IDS = "/followers/ids";
+	public static final String RES_DIRECT_MESSAGES = "/direct_messages";
 
 
 	/*
@@ -53,6 +58,38 @@ public final class RateLimit {
 		this(jrl.getString("limit"), jrl.getString("remaining"), jrl.getString("reset"));
 	}
 
+	/**
+	 * @return the rate limit in the X-Rate-Limit headers, or null if there
+	 *         aren't any
+	 */
+	static RateLimit fromHeaders(Map<String, List<String>> headers) {
+		String limit = URLConnectionHttpClient.getHeader(headers, "X-Rate-Limit-Limit");
+		if (limit == null) {
+			return null;
+		}
+		String remaining = URLConnectionHttpClient.getHeader(headers, "X-Rate-Limit-Remaining");
+		String reset = URLConnectionHttpClient.getHeader(headers, "X-Rate-Limit-Reset");
+		return new RateLimit(limit, remaining, reset);
+	}
+
+	/**
+	 * @return whichever of the two describes the later state of the same
+	 *         resource: the one with the later reset or, in the same window,
+	 *         the one with fewer calls remaining.
+	 */
+	static RateLimit newer(RateLimit a, RateLimit b) {
+		try {
+			int byReset = a.getReset().compareTo(b.getReset());
+			if (byReset != 0) {
+				return byReset > 0 ? a : b;
+			}
+			return a.getRemaining() < b.getRemaining() ? a : b;
+		} catch (RuntimeException e) {
+			// unparseable -- trust the latest
+			return b;
+		}
+	}
+
 	public int getLimit() {
 		return Integer.valueOf(limit);
 	}
@@ -0,0 +1,148 @@
+package winterwell.jtwitter;
+
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How {@link URLConnectionHttpClient} retries a call that hit a server error,
+ * when {@link URLConnectionHttpClient#setRetryOnError(boolean)} is on.
+ * <p>
+ * Retries wait a random time between 0 and an exponentially growing cap
+ * ("full jitter"), so that many threads -- or many bots -- hit by the same
+ * Twitter glitch don't all come back at the same moment.
+ * <p>
+ * Retries are also limited by a budget: each request earns a fraction of a
+ * retry, and each retry spends one. So when everything is failing, the
+ * retries add only a little to the load, rather than multiplying it.
+ * <p>
+ * Subclass and override {@link #isRetryable(TwitterException, boolean)} or
+ * {@link #getDelayMillis(int)} for other behaviour. Thread safe.
+ *
+ * @see URLConnectionHttpClient#setRetryPolicy(RetryPolicy)
+ */
+public class RetryPolicy implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final int maxAttempts;
+
+	private final long baseDelayMillis;
+
+	private final long maxDelayMillis;
+
+	private final double budgetPerRequest;
+
+	private final double maxBudget;
+
+	private double budget;
+
+	private long retries;
+
+	private long refused;
+
+	/**
+	 * Up to 3 attempts, waiting up to 0.5 then 1 second. A retry for every 5
+	 * requests, with up to 10 saved up.
+	 */
+	public RetryPolicy() {
+		this(3, 500, 30000, 0.2, 10);
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            Including the first. 1 means never retry.
+	 * @param baseDelayMillis
+	 *            The cap on the wait before the first retry. It doubles for
+	 *            each retry after that.
+	 * @param maxDelayMillis
+	 *            The cap never goes above this.
+	 * @param budgetPerRequest
+	 *            The retries earned by each request, e.g. 0.2 allows about
+	 *            one retry per 5 requests.
+	 * @param maxBudget
+	 *            The most retries that can be saved up.
+	 */
+	public RetryPolicy(int maxAttempts, long baseDelayMillis,
+			long maxDelayMillis, double budgetPerRequest, int maxBudget) {
+		if (maxAttempts < 1)
+			throw new IllegalArgumentException("maxAttempts " + maxAttempts);
+		this.maxAttempts = maxAttempts;
+		this.baseDelayMillis = baseDelayMillis;
+		this.maxDelayMillis = maxDelayMillis;
+		this.budgetPerRequest = budgetPerRequest;
+		this.maxBudget = maxBudget;
+		this.budget = maxBudget;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * @param ex
+	 *            What went wrong with the last attempt
+	 * @param post
+	 *            True for a POST. These are not retried after an IO error,
+	 *            since the request may well have got through.
+	 * @return true if trying again might help
+	 */
+	public boolean isRetryable(TwitterException ex, boolean post) {
+		if (ex instanceof TwitterException.CircuitOpen)
+			return false;
+		if (ex instanceof TwitterException.E50X)
+			return true;
+		return !post && ex instanceof TwitterException.IO;
+	}
+
+	/**
+	 * @param attempt
+	 *            The attempt which just failed, counting from 1
+	 * @return how long to wait before the next attempt
+	 */
+	public long getDelayMillis(int attempt) {
+		// cap the shift so the doubling can't overflow
+		long cap = Math.min(maxDelayMillis,
+				baseDelayMillis << Math.min(attempt - 1, 30));
+		return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+	}
+
+	/**
+	 * Called once per request (not per attempt).
+	 */
+	synchronized void onRequest() {
+		budget = Math.min(maxBudget, budget + budgetPerRequest);
+	}
+
+	/**
+	 * @return true if the budget allows a retry (which is then spent)
+	 */
+	synchronized boolean tryRetry() {
+		if (budget < 1) {
+			refused++;
+			return false;
+		}
+		budget--;
+		retries++;
+		return true;
+	}
+
+	/**
+	 * @return retries made
+	 */
+	public synchronized long getRetries() {
+		return retries;
+	}
+
+	/**
+	 * @return retries not made because the budget was spent
+	 */
+	public synchronized long getRefused() {
+		return refused;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RetryPolicy[attempts:" + maxAttempts + " budget:"
+				+ (int) budget + " retries:" + retries + " refused:" + refused
+				+ "]";
+	}
+}
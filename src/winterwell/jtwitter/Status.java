@@ -1,5 +1,7 @@
 package winterwell.jtwitter;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -194,6 +196,20 @@ public final class Status implements ITweet {
 
 	private transient String _rawtext;
 
+	/**
+	 * With {@link Twitter#LAZY_STATUSES}: the json which the original,
+	 * location and entities are yet to be decoded from. null once they have
+	 * been.
+	 */
+	private transient volatile JSONObject json;
+
+	/**
+	 * With json: the "RT @name: " prefix of a fixed-up retweet, or null
+	 */
+	private transient String rtStart;
+
+	private transient String displayText;
+
 	private boolean retweet;
 
 	private boolean quotedStatus;
@@ -239,37 +255,16 @@ public final class Status implements ITweet {
 	 */
 	Status(JSONObject object, User user) throws TwitterException {
 		try {
-			String _id = object.optString("id_str");
-			id = new BigInteger(_id == "" ? object.get("id").toString() : _id);
+			id = jsonGetId(object);
 			_rawtext = InternalUtils.jsonGet("text", object);
 			// retweet?
-			JSONObject retweeted = object.optJSONObject("retweeted_status");			
-			if (retweeted != null) {
-				retweet = true;
-				if (retweeted.has("user")) {
-					original = new Status(retweeted, null);
-				} else {
-					// no user info?! Seen repeatedly August 2015. Fix up from the text					
-					Matcher m = RT_AUTHOR.matcher(_rawtext);
-					if (m.find()) {
-						String srcAuthorName = m.group(1);
-						User srcAuthor = new User(srcAuthorName);
-						original = new Status(retweeted, srcAuthor);
-					} else {
-						// No author info :(
-						original = new Status(retweeted, null);
-					}					
-				}
-			}
+			retweet = object.optJSONObject("retweeted_status") != null;
 			// quoted tweet?
-			JSONObject quoted = object.optJSONObject("quoted_status");
-			if (quoted != null) {
-				quotedStatus = true;
-				try {
-					original = new Status(quoted, null);
-				} catch	(Throwable ex) {
-					InternalUtils.log("bad.json", "Quoted status could not be parsed: "+ex);
-				}
+			quotedStatus = object.optJSONObject("quoted_status") != null;
+			// When lazy, only decode the original now if the text needs it
+			boolean lazy = Twitter.LAZY_STATUSES;
+			if ( ! lazy || ((retweet || quotedStatus) && _rawtext.startsWith("RT "))) {
+				setupOriginal(object);
 			}
 			
 			// text!			
@@ -278,10 +273,10 @@ public final class Status implements ITweet {
 			// Feb/March 2015: We should get entities from the original in ALL cases (not just marked as truncated)
 			// or else there's a risk of getting truncated entites. -- Alex
 //			boolean truncated = object.optBoolean("truncated"); // This can lie (bugs seen March 2013) -- so let's also check the text
-			String rtStart = null;
+			String _rtStart = null;
 			if (original!=null && _text.startsWith("RT ")) {
-				rtStart = "RT @"+original.getUser()+": ";
-				_text = rtStart+original.getText();				
+				_rtStart = "RT @"+original.getUser()+": ";
+				_text = _rtStart+original.getText();				
 			} else {
 				_text = InternalUtils.unencode(_text); // bugger - this screws up the indices in tweet entities
 			}
@@ -299,7 +294,7 @@ public final class Status implements ITweet {
 			if (irt == null || irt.length()==0) {
 				// Twitter doesn't give in-reply-to for retweets
 				// - but since we have the info, let's make it available
-				inReplyToStatusId = original == null ? null : original.getId();
+				inReplyToStatusId = getOriginalId(object);
 			} else {
 				inReplyToStatusId = new BigInteger(irt);
 			}
@@ -323,16 +318,11 @@ public final class Status implements ITweet {
 							"id").toString() : _uid);
 					this.user = new User(null, userId);
 				} else {
-					// normal JSON case
-					this.user = new User(jsonUser, this);
+					// normal JSON case -- one User object per user, which
+					// is shared so doesn't point back to this status
+					this.user = UserCache.getShared().intern(jsonUser);
 				}
 			}
-			// location if geocoding is on
-			Object _locn = Status.jsonGetLocn(object);
-			location = _locn == null ? null : _locn.toString();
-			if (_locn instanceof Place) {
-				place = (Place) _locn;
-			}
 			// language if specified
 			String _lang = object.optString("lang");
 			lang = "und".equals(_lang)? null : _lang;
@@ -343,15 +333,6 @@ public final class Status implements ITweet {
 			// ignore this as it can be misleading: true is reliable, false isn't
 			// retweeted = object.optBoolean("retweeted");
 			
-			// Entities (switched on by Twitter.setIncludeTweetEntities(true))
-			JSONObject jsonEntities = object.optJSONObject("entities");
-			// Note: Twitter filters out dud @names
-			if (jsonEntities != null) {
-				entities = new EnumMap<Twitter.KEntityType, List<TweetEntity>>(
-						KEntityType.class);
-				setupEntities(_rawtext, rtStart, jsonEntities);								
-			}
-			
 			// censorship flags
 			// Should we have this??
 //			String withheld = object.optString("withheld_in_countries");
@@ -360,11 +341,121 @@ public final class Status implements ITweet {
 //			}
 //			"withheld_scope": "status" or "user"
 			sensitive = object.optBoolean("possibly_sensitive");
+			
+			// location and entities -- now, or when first asked for
+			if (lazy) {
+				rtStart = _rtStart;
+				json = object;
+			} else {
+				setupLocnAndEntities(object, _rtStart);
+			}
 		} catch (JSONException e) {
 			throw new TwitterException.Parsing(null, e);
 		}
 	}
 
+	private static BigInteger jsonGetId(JSONObject object) {
+		String _id = object.optString("id_str");
+		return new BigInteger(_id == "" ? object.get("id").toString() : _id);
+	}
+
+	/**
+	 * @return the id of the retweeted or quoted status (which is what
+	 *         {@link #getOriginal()} gives), without decoding it. null if
+	 *         neither.
+	 */
+	private BigInteger getOriginalId(JSONObject object) {
+		if (original != null) {
+			return original.getId();
+		}
+		JSONObject quoted = object.optJSONObject("quoted_status");
+		if (quoted != null && Twitter.LAZY_STATUSES) {
+			return jsonGetId(quoted);
+		}
+		JSONObject retweeted = object.optJSONObject("retweeted_status");
+		return retweeted == null ? null : jsonGetId(retweeted);
+	}
+
+	private void setupOriginal(JSONObject object) {
+		// retweet?
+		JSONObject retweeted = object.optJSONObject("retweeted_status");			
+		if (retweeted != null) {
+			if (retweeted.has("user")) {
+				original = new Status(retweeted, null);
+			} else {
+				// no user info?! Seen repeatedly August 2015. Fix up from the text					
+				Matcher m = RT_AUTHOR.matcher(_rawtext);
+				if (m.find()) {
+					String srcAuthorName = m.group(1);
+					User srcAuthor = new User(srcAuthorName);
+					original = new Status(retweeted, srcAuthor);
+				} else {
+					// No author info :(
+					original = new Status(retweeted, null);
+				}					
+			}
+		}
+		// quoted tweet?
+		JSONObject quoted = object.optJSONObject("quoted_status");
+		if (quoted != null) {
+			try {
+				original = new Status(quoted, null);
+			} catch	(Throwable ex) {
+				InternalUtils.log("bad.json", "Quoted status could not be parsed: "+ex);
+			}
+		}
+	}
+
+	private void setupLocnAndEntities(JSONObject object, String _rtStart) {
+		// location if geocoding is on
+		Object _locn = Status.jsonGetLocn(object);
+		location = _locn == null ? null : _locn.toString();
+		if (_locn instanceof Place) {
+			place = (Place) _locn;
+		}
+		// Entities (switched on by Twitter.setIncludeTweetEntities(true))
+		JSONObject jsonEntities = object.optJSONObject("entities");
+		// Note: Twitter filters out dud @names
+		if (jsonEntities != null) {
+			entities = new EnumMap<Twitter.KEntityType, List<TweetEntity>>(
+					KEntityType.class);
+			setupEntities(_rawtext, _rtStart, jsonEntities);								
+		}
+	}
+
+	/**
+	 * With {@link Twitter#LAZY_STATUSES}: decode the original, location and
+	 * entities, if that hasn't been done yet.
+	 */
+	private void setupLazy() {
+		if (json == null) {
+			return;
+		}
+		synchronized (this) {
+			JSONObject object = json;
+			if (object == null) {
+				return;
+			}
+			try {
+				if (original == null) {
+					setupOriginal(object);
+				}
+				setupLocnAndEntities(object, rtStart);
+			} catch (JSONException e) {
+				throw new TwitterException.Parsing(null, e);
+			}
+			rtStart = null;
+			// publishes the fields set above
+			json = null;
+		}
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		// the json can't be serialised, so decode it first
+		setupLazy();
+		out.defaultWriteObject();
+	}
+
 	private void setupEntities(String _rawtext, String rtStart,
 			JSONObject jsonEntities) {
 		if (rtStart!=null) {
@@ -452,6 +543,7 @@ public final class Status implements ITweet {
 
 	@Override
 	public String getLocation() {
+		setupLazy();
 		return location;
 	}
 
@@ -488,11 +580,13 @@ public final class Status implements ITweet {
 	 * Status. null otherwise.
 	 */
 	public Status getOriginal() {
+		setupLazy();
 		return original;
 	}
 
 	@Override
 	public Place getPlace() {
+		setupLazy();
 		return place;
 	}
 	
@@ -517,6 +611,7 @@ public final class Status implements ITweet {
 
 	@Override
 	public List<TweetEntity> getTweetEntities(KEntityType type) {
+		setupLazy();
 		return entities == null ? null : entities.get(type);
 	}
 
@@ -565,7 +660,13 @@ public final class Status implements ITweet {
 	 * Note: this does NOT resolve short urls from bit.ly etc. 
 	 */
 	public String getDisplayText() {
-		return getDisplayText2(this);
+		// worked out once (the text and entities don't change)
+		String _displayText = displayText;
+		if (_displayText == null) {
+			_displayText = getDisplayText2(this);
+			displayText = _displayText;
+		}
+		return _displayText;
 	}
 
 	/**
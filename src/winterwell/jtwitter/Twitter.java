@@ -3,24 +3,31 @@ package winterwell.jtwitter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
+import java.util.zip.GZIPInputStream;
 
 import com.winterwell.jgeoplanet.BoundingBox;
 import com.winterwell.jgeoplanet.IPlace;
 import com.winterwell.jgeoplanet.Location;
 
 import winterwell.json.JSONArray;
+import winterwell.json.JSONArrayIterator;
 import winterwell.json.JSONException;
 import winterwell.json.JSONObject;
+import winterwell.json.JSONTokener;
 import winterwell.jtwitter.TwitterException.E401;
 import winterwell.jtwitter.TwitterException.E403;
 import winterwell.jtwitter.TwitterException.E404;
@@ -110,6 +117,16 @@ public class Twitter implements Serializable {
 	public interface ICallback {
 		public boolean process(List<Status> statuses);
 	}
+
+	/**
+	 * Receives tweets one at a time, as soon as each has been parsed, from the
+	 * streamed versions of the timeline methods, e.g.
+	 * {@link Twitter#getMentions(ITweetCallback)}. To stop reading, return
+	 * true.
+	 */
+	public interface ITweetCallback<T extends ITweet> {
+		public boolean process(T tweet);
+	}
 			
 	/**
 	 * How is the Twitter API today?
@@ -270,8 +287,10 @@ public class Twitter implements Serializable {
 		void setTimeout(int millisecs);
 
 		/**
-		 * If true, will wait 1/2 second and make a 2nd request when presented with
-		 * a server error (E50X). Only retries once -- a 2nd fail will throw an exception.
+		 * If true, will wait a moment and try again when presented with a
+		 * server error (E50X). {@link URLConnectionHttpClient} retries up to
+		 * twice, with a randomised, growing wait -- see {@link RetryPolicy}. If
+		 * the retries fail too, the first exception is thrown.
 		 * 
 		 * This policy handles most Twitter server glitches.
 		 */
@@ -613,6 +632,20 @@ public class Twitter implements Serializable {
 	 */
 	public static boolean CHECK_TWEET_LENGTH = true;
 
+	/**
+	 * This global toggle switches on lazy parsing of statuses.
+	 * <p>
+	 * The id, text, user, dates, etc. are always read straight away. But the
+	 * tweet entities, place/location and the retweeted or quoted original are
+	 * only decoded when first asked for. This saves a lot of work if most
+	 * statuses are only looked at for their ids -- at the cost of holding on to
+	 * each status's json until then, and of errors in those parts showing up
+	 * late.
+	 * <p>
+	 * false by default.
+	 */
+	public static boolean LAZY_STATUSES;
+
 	/**
 	 * The length of a url after t.co shortening. Currently 23 characters.
 	 * (Used to be 22 for HTTP / 23 for HTTPS but now 23 for all)
@@ -940,28 +973,35 @@ public class Twitter implements Serializable {
 	 * @param list
 	 * @return filtered list (a copy)
 	 */
-	private <T extends ITweet> List<T> dateFilter(List<T> list) {
+	<T extends ITweet> List<T> dateFilter(List<T> list) {
 		if (sinceDate == null && untilDate == null)
 			return list;
 		ArrayList<T> filtered = new ArrayList<T>(list.size());
 		for (T message : list) {
-			// assume OK if Twitter is being stingy on the info
-			if (message.getCreatedAt() == null) {
+			if (dateFilter(message)) {
 				filtered.add(message);
-				continue;
-			}
-			if (untilDate != null && untilDate.before(message.getCreatedAt())) {
-				continue;
 			}
-			if (sinceDate != null && sinceDate.after(message.getCreatedAt())) {
-				continue;
-			}
-			// ok
-			filtered.add(message);
 		}
 		return filtered;
 	}
 
+	/**
+	 * @return true if the message is within the since/until dates
+	 */
+	private boolean dateFilter(ITweet message) {
+		// assume OK if Twitter is being stingy on the info
+		if (message.getCreatedAt() == null) {
+			return true;
+		}
+		if (untilDate != null && untilDate.before(message.getCreatedAt())) {
+			return false;
+		}
+		if (sinceDate != null && sinceDate.after(message.getCreatedAt())) {
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Deletes the given Status or Message. The authenticating user must be the
 	 * author of the status post.
@@ -1108,6 +1148,20 @@ public class Twitter implements Serializable {
 				standardishParameters());
 	}
 
+	/**
+	 * Streamed version of {@link #getDirectMessages()}: each message is handed
+	 * to the callback as it is parsed from the response.
+	 * 
+	 * @see #getMentions(ITweetCallback)
+	 */
+	public void getDirectMessages(ITweetCallback<Message> callback) {
+		Map<String, String> vars = standardishParameters();
+		// As getMessages(): ask for the full text
+		vars.put("full_text", "true");
+		stream(TWITTER_URL + "/direct_messages.json", vars, true, null,
+				Message::new, callback);
+	}
+
 	/**
 	 * Returns a list of the direct messages sent *by* the authenticating user.
 	 */
@@ -1223,6 +1277,18 @@ public class Twitter implements Serializable {
 				standardishParameters(), true);
 	}
 
+	/**
+	 * Streamed version of {@link #getHomeTimeline()}: each status is handed to
+	 * the callback as it is parsed from the response.
+	 * 
+	 * @see #getMentions(ITweetCallback)
+	 */
+	public void getHomeTimeline(ITweetCallback<Status> callback) {
+		assert http.canAuthenticate();
+		stream(TWITTER_URL + "/statuses/home_timeline.json",
+				standardishParameters(), true, null, Twitter::newStatus, callback);
+	}
+
 	/**
 	 * Provides access to the {@link IHttpClient} which manages the low-level
 	 * authentication, posts and gets.
@@ -1373,6 +1439,84 @@ public class Twitter implements Serializable {
 				standardishParameters(), true);
 	}
 
+	/**
+	 * Streamed version of {@link #getMentions()}: each status is handed to the
+	 * callback as soon as it has been parsed, straight from the response, so
+	 * the page is never held in memory as a whole (as a String or as a JSON
+	 * tree).
+	 * <p>
+	 * This fetches one page: maxResults paging is not supported. Errors are
+	 * not retried, as the callback may already have seen part of the page.
+	 * 
+	 * @param callback
+	 *            Return true to stop reading.
+	 */
+	public void getMentions(ITweetCallback<Status> callback) {
+		stream(TWITTER_URL + "/statuses/mentions_timeline.json",
+				standardishParameters(), true, null, Twitter::newStatus, callback);
+	}
+
+	private static Status newStatus(JSONObject obj) {
+		return new Status(obj, null);
+	}
+
+	/**
+	 * Fetch a page, and parse the tweets in it straight from the response
+	 * stream.
+	 * 
+	 * @param key
+	 *            If set, the tweets are this field of a json object (as with
+	 *            search). Otherwise the page is a json array of tweets.
+	 */
+	private <T extends ITweet> void stream(String url, Map<String, String> vars,
+			boolean authenticate, String key, Function<JSONObject, T> factory,
+			ITweetCallback<T> callback) 
+	{
+		InternalUtils.count(url);
+		InputStream in = null;
+		try {
+			HttpURLConnection connection = http.connect(url, vars, authenticate);
+			in = connection.getInputStream();
+			if ("gzip".equals(connection.getContentEncoding())) {
+				in = new GZIPInputStream(in);
+			}
+			JSONTokener x = new JSONTokener(new InputStreamReader(in, "UTF-8"));
+			char c = x.nextClean();
+			if (c == 0) {
+				// as Status.getStatuses(): blank means nothing
+				return;
+			}
+			if (c == '<') {
+				// an html error page, e.g. when Twitter is really hosed
+				throw new TwitterException.E50X("html instead of json from "+url);
+			}
+			x.back();
+			Iterator<Object> it = key == null ? new JSONArrayIterator(x)
+					: JSONArrayIterator.inObject(x, key);
+			while (it.hasNext()) {
+				Object item = it.next();
+				if (item == null || JSONObject.NULL.equals(item)) {
+					continue;
+				}
+				T tweet = factory.apply((JSONObject) item);
+				if ( ! dateFilter(tweet)) {
+					continue;
+				}
+				if (callback.process(tweet)) {
+					return;
+				}
+			}
+		} catch (JSONException e) {
+			throw new TwitterException.Parsing(null, e);
+		} catch (SocketTimeoutException e) {
+			throw new TwitterException.Timeout(url);
+		} catch (IOException e) {
+			throw new TwitterException.IO(e);
+		} finally {
+			InternalUtils.close(in);
+		}
+	}
+
 	/**
 	 * 
 	 * @param url
@@ -1603,7 +1747,7 @@ public class Twitter implements Serializable {
 	 * @param rpp
 	 * @return
 	 */
-	private Map<String, String> getSearchParams(String searchTerm, Integer rpp) {
+	Map<String, String> getSearchParams(String searchTerm, Integer rpp) {
 		Map vars = InternalUtils.asMap(
 				"count", rpp, 
 				"q", searchTerm);
@@ -1694,6 +1838,44 @@ public class Twitter implements Serializable {
 		}
 	}
 
+	/**
+	 * Bulk-fetch statuses by id. Works in batches of 100, so this costs one
+	 * call per 100 ids rather than one per status. The statuses' authors are
+	 * returned inline.
+	 * <p>
+	 * Deleted statuses, and ones you're not allowed to see, are missing from
+	 * the results. Like {@link Twitter_Users#showById(java.util.Collection)},
+	 * this will throw exceptions from the 1st batch, but swallow them from
+	 * subsequent batches.
+	 * 
+	 * @param ids
+	 *            Can be empty
+	 */
+	public List<Status> getStatuses(List<? extends Number> ids) throws TwitterException {
+		if (ids.isEmpty())
+			return Collections.EMPTY_LIST;
+		boolean auth = InternalUtils.authoriseIn11(this);
+		int batchSize = 100;
+		List<Status> statuses = new ArrayList<Status>(ids.size());
+		for (int i = 0; i < ids.size(); i += batchSize) {
+			Map<String, String> vars = InternalUtils.asMap("id",
+					InternalUtils.join(ids, i, i + batchSize));
+			if (tweetEntities) {
+				vars.put("include_entities", "1");
+			}
+			try {
+				String json = http.getPage(TWITTER_URL + "/statuses/lookup.json", vars, auth);
+				statuses.addAll(Status.getStatuses(json));
+			} catch (TwitterException e) {
+				if (statuses.size() == 0)
+					throw e;
+				e.printStackTrace();
+				break;
+			}
+		}
+		return statuses;
+	}
+
 	/**
 	 * @return The current status of the given user.
 	 *         <p>
@@ -2049,7 +2231,8 @@ public class Twitter implements Serializable {
 	 * @throws SuspendedUser
 	 */
 	private void isSuspended(String screenName) throws SuspendedUser {
-		show(screenName);
+		// not from the cache: this needs to ask Twitter
+		users().show2(screenName);
 	}
 
 	/**
@@ -2160,6 +2343,22 @@ public class Twitter implements Serializable {
 		return search(searchTerm, null, 100);
 	}
 
+	/**
+	 * Streamed version of {@link #search(String)}: each status is handed to
+	 * the callback as it is parsed from the response. Fetches one page, of up
+	 * to 100 results.
+	 * 
+	 * @see #getMentions(ITweetCallback)
+	 */
+	public void search(String searchTerm, ITweetCallback<Status> callback) {
+		if (searchTerm.length() > 1000) {
+			throw new TwitterException.E406("Search query too long: "+searchTerm);
+		}
+		Map vars = getSearchParams(searchTerm, maxResults < 100 && maxResults > 0 ? maxResults : 100);
+		stream(TWITTER_URL + "/search/tweets.json", vars, true, "statuses",
+				Twitter::newStatus, callback);
+	}
+
 	/**
 	 * Perform a search of Twitter.
 	 * <p>
@@ -2704,7 +2903,7 @@ public class Twitter implements Serializable {
 	 * Map with since_id, page and count, if set. This is called by methods that
 	 * return lists of statuses or messages.
 	 */
-	private Map<String, String> standardishParameters() {
+	Map<String, String> standardishParameters() {
 		return addStandardishParameters(new HashMap<String, String>());
 	}
 
@@ -2874,7 +3073,7 @@ public class Twitter implements Serializable {
 	 * @param inReplyToStatusId
 	 * @return The vars to send
 	 */
-	private Map<String, String> updateStatus2_vars(String statusText, Number inReplyToStatusId, boolean withMedia) 
+	Map<String, String> updateStatus2_vars(String statusText, Number inReplyToStatusId, boolean withMedia) 
 	{
 		// check for length
 		int max = withMedia? MAX_CHARS - MEDIA_LENGTH : MAX_CHARS;
@@ -3091,6 +3290,16 @@ public class Twitter implements Serializable {
 		return new Twitter_Users(this);
 	}
 
+	/**
+	 * Non-blocking versions of the most used API methods, which return
+	 * CompletableFutures instead of waiting for Twitter.
+	 * <p>
+	 * Note: this is a new object, sharing this Twitter's settings.
+	 */
+	public AsyncTwitter async() {
+		return new AsyncTwitter(this);
+	}
+
 	/**
 	 * 
 	 * @param place Can be null (switches off geo-filtering)
@@ -50,6 +50,20 @@ public class TwitterException extends RuntimeException {
 		}
 	}
 
+	/**
+	 * A server error -- but generated by your code, without calling Twitter,
+	 * because recent calls to the same resource have kept failing.
+	 *
+	 * @see CircuitBreaker
+	 */
+	public static class CircuitOpen extends E50X {
+		private static final long serialVersionUID = 1L;
+
+		public CircuitOpen(String string) {
+			super(string);
+		}
+	}
+
 	/**
 	 * An unauthorised exception. This is thrown (eg) if a password is wrong or
 	 * a login is required. It may also be thrown when accessing a protected
@@ -75,8 +75,18 @@ public class Twitter_Users {
 		boolean auth = InternalUtils.authoriseIn11(jtwit);
 		int batchSize = 100;
 		ArrayList<User> users = new ArrayList<User>(screenNamesOrIds.size());
-		List _screenNamesOrIds = screenNamesOrIds instanceof List ? (List) screenNamesOrIds
-				: new ArrayList(screenNamesOrIds);
+		// Only fetch the users we don't have
+		UserCache cache = UserCache.getShared();
+		List _screenNamesOrIds = new ArrayList(screenNamesOrIds.size());
+		for (Object nameOrId : screenNamesOrIds) {
+			User cached = stringOrNumber == String.class ? cache.get((String) nameOrId)
+					: cache.get(((Number) nameOrId).longValue());
+			if (cached != null) {
+				users.add(cached);
+			} else {
+				_screenNamesOrIds.add(nameOrId);
+			}
+		}
 		for (int i = 0; i < _screenNamesOrIds.size(); i += batchSize) {
 			int last = i + batchSize;
 			String names = InternalUtils.join(_screenNamesOrIds, i, last);
@@ -120,6 +130,8 @@ public class Twitter_Users {
 			throw new NullPointerException();
 		if (username.equals(jtwit.getScreenName()))
 			throw new IllegalArgumentException("follow yourself makes no sense");
+		// their cached follower count is about to be out of date
+		UserCache.getShared().remove(username);
 		String page = null;
 		try {
 			Map<String, String> vars = InternalUtils.asMap("screen_name",
@@ -736,20 +748,28 @@ public class Twitter_Users {
 	/**
 	 * Returns information of a given user, specified by user-id.
 	 * 
+	 * A cached user is returned as is, without their status or relationship
+	 * info.
+	 * 
 	 * @param userId
 	 *            The user-id of a user.
 	 * @throws exception
 	 *             if the user does not exist - or has been terminated (as
 	 *             happens to spam bots).
+	 * @see UserCache
 	 */
 	public User show(Number userId) {
+		User cached = UserCache.getShared().get(userId.longValue());
+		if (cached != null) {
+			return cached;
+		}
 		Map<String, String> vars = InternalUtils.asMap("user_id",
 				userId.toString());
 		String json = http.getPage(jtwit.TWITTER_URL + "/users/show.json",
 				vars, http.canAuthenticate());
 		try {
 			User user = new User(new JSONObject(json), null);
-			return user;
+			return UserCache.getShared().put(user);
 		} catch (JSONException e) {
 			throw new TwitterException.Parsing(json, e);
 		}
@@ -758,6 +778,9 @@ public class Twitter_Users {
 	/**
 	 * Returns information of a given user, specified by screen name.
 	 * 
+	 * A cached user is returned as is, without their status or relationship
+	 * info.
+	 * 
 	 * @param screenName
 	 *            The screen name of a user.
 	 * @throws exception
@@ -765,9 +788,22 @@ public class Twitter_Users {
 	 * @throws SuspendedUser
 	 *             if the user has been terminated (as happens to spam bots).
 	 * @see #show(long)
+	 * @see UserCache
 	 */
 	public User show(String screenName) throws TwitterException,
 			TwitterException.SuspendedUser {
+		User cached = UserCache.getShared().get(screenName);
+		if (cached != null) {
+			return cached;
+		}
+		return show2(screenName);
+	}
+
+	/**
+	 * {@link #show(String)} without the cache
+	 */
+	User show2(String screenName) throws TwitterException,
+			TwitterException.SuspendedUser {
 		Map vars = InternalUtils.asMap("screen_name", screenName);
 		//Test Code Debugger at work - expected closures until 2012
 		String json = "";
@@ -786,7 +822,7 @@ public class Twitter_Users {
 					+ " does not seem to exist");
 		try {
 			User user = new User(new JSONObject(json), null);
-			return user;
+			return UserCache.getShared().put(user);
 		} catch (JSONException e) {
 			throw new TwitterException.Parsing(json, e);
 		}
@@ -817,6 +853,8 @@ public class Twitter_Users {
 	 *         method fails because the specified user was not a friend.
 	 */
 	public User stopFollowing(String username) {
+		// their cached follower count is about to be out of date
+		UserCache.getShared().remove(username);
 		String page;
 		try {
 			Map<String, String> vars = InternalUtils.asMap("screen_name",
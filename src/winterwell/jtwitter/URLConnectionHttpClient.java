@@ -12,6 +12,7 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.net.MalformedURLException;
 import java.nio.charset.MalformedInputException;
 import java.util.Collection;
 import java.util.Collections;
@@ -19,8 +20,17 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.zip.GZIPInputStream;
 
+import oauth.signpost.http.HttpRequest;
 import winterwell.json.JSONArray;
 import winterwell.json.JSONObject;
 import winterwell.jtwitter.Twitter.KRequestType;
@@ -45,7 +55,12 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 
 	private static final long serialVersionUID = 1L;
 
-	private Map<String, List<String>> headers;
+	/**
+	 * The headers of the last response each thread received, for
+	 * {@link #getHeader(String)}. Per-thread so that threads sharing this
+	 * client don't see each other's headers.
+	 */
+	private transient ThreadLocal<Map<String, List<String>>> headers = new ThreadLocal<Map<String, List<String>>>();
 
 	int minRateLimit;
 
@@ -53,15 +68,28 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 
 	private String password;
 
-	private Map<String, RateLimit> rateLimits = Collections.synchronizedMap(new HashMap());
+	private Map<String, RateLimit> rateLimits = new ConcurrentHashMap<String, RateLimit>();
 
 	/**
-	 * If true, will wait 1/2 second and make a 2nd request when presented with
-	 * a server error (E50X). Only retries once -- a 2nd fail will throw an exception.
+	 * If true, will retry when presented with a server error (E50X) as set by
+	 * {@link #retryPolicy} -- by default twice more, after a short random
+	 * wait. If the retries fail too, the first exception is thrown.
 	 * 
 	 * This policy handles most Twitter server glitches.
 	 */
 	boolean retryOnError;
+
+	private RetryPolicy retryPolicy = new RetryPolicy();
+
+	/**
+	 * By resource (or host, for urls without one). Shared by copies of this
+	 * client.
+	 */
+	private Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+
+	private int circuitBreakerFailures = 5;
+
+	private long circuitBreakerOpenMillis = 30000;
 	
 	@Override
 	public boolean isRetryOnError() {
@@ -73,6 +101,118 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	private boolean htmlImpliesError = true;
 
 	private boolean gzip = false;
+
+	/**
+	 * If set, {@link #getPage(String, Map, boolean)} and
+	 * {@link #post(String, Map, boolean)} go over this instead of a fresh
+	 * HttpURLConnection per call. Shared by copies of this client.
+	 */
+	private transient HttpTransport transport;
+
+	/**
+	 * Send normal (non-streaming) requests over a transport such as
+	 * {@link HttpTransport#javaNetHttp()}, which keeps connections alive and
+	 * multiplexes requests over HTTP/2. Streaming and multipart uploads still
+	 * use HttpURLConnection.
+	 * 
+	 * @param transport null to go back to HttpURLConnection for everything.
+	 */
+	public void setTransport(HttpTransport transport) {
+		this.transport = transport;
+	}
+
+	public HttpTransport getTransport() {
+		return transport;
+	}
+
+	/**
+	 * If set, GET responses are kept here, and repeat requests are answered
+	 * from it or made conditional. Shared by copies of this client.
+	 */
+	private transient HttpCache cache;
+
+	/**
+	 * Cache GET responses. A response within its resource's time-to-live is
+	 * served without a call. Otherwise the request is sent with the ETag /
+	 * Last-Modified of the cached response, and a "304 Not Modified" is served
+	 * from the cache. Note that Twitter still counts a 304 against the rate
+	 * limit.
+	 * 
+	 * @param cache null for no caching (the default)
+	 */
+	public void setCache(HttpCache cache) {
+		this.cache = cache;
+	}
+
+	public HttpCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * How to retry, if {@link #setRetryOnError(boolean)} is on. Shared by
+	 * copies of this client.
+	 */
+	public void setRetryPolicy(RetryPolicy retryPolicy) {
+		if (retryPolicy == null)
+			throw new NullPointerException();
+		this.retryPolicy = retryPolicy;
+	}
+
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * Fail fast on a resource which keeps failing. On by default (5 failures,
+	 * 30 seconds). Resets all the breakers.
+	 * 
+	 * @param failures Consecutive server or network errors which trip the
+	 * breaker. 0 switches circuit breaking off.
+	 * @param openMillis How long a tripped breaker stays open before letting
+	 * a trial call through.
+	 * @see CircuitBreaker
+	 */
+	public void setCircuitBreaker(int failures, long openMillis) {
+		circuitBreakerFailures = failures;
+		circuitBreakerOpenMillis = openMillis;
+		circuitBreakers.clear();
+	}
+
+	/**
+	 * @param url A Twitter url (or a resource, e.g. {@link RateLimit#RES_MENTIONS})
+	 * @return the breaker for this url's resource, or null if circuit breaking
+	 * is off
+	 */
+	public CircuitBreaker getCircuitBreaker(String url) {
+		if (circuitBreakerFailures < 1) return null;
+		String resource = RateLimit.getResource(url);
+		if (resource == null) {
+			if (url.startsWith("/")) {
+				resource = url;
+			} else try {
+				resource = new URL(url).getHost();
+			} catch (MalformedURLException e) {
+				return null;
+			}
+		}
+		return circuitBreakers.computeIfAbsent(resource, r -> new CircuitBreaker(
+				r, circuitBreakerFailures, circuitBreakerOpenMillis));
+	}
+
+	/**
+	 * @return the breakers made so far, by resource, for monitoring
+	 */
+	public Map<String, CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableMap(circuitBreakers);
+	}
+
+	boolean isGzip() {
+		return gzip;
+	}
+
+	boolean isHtmlImpliesError() {
+		return htmlImpliesError;
+	}
 	
 	/**
 	 * Set whether or not to request gzipped responses.
@@ -109,28 +249,20 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	@Override
 	public HttpURLConnection connect(String url, Map<String, String> vars,
 			boolean authenticate) throws IOException 
+	{
+		return connect(url, vars, authenticate, null);
+	}
+
+	/**
+	 * @param requestHeaders Extra headers, e.g. If-None-Match. Can be null.
+	 */
+	private HttpURLConnection connect(String url, Map<String, String> vars,
+			boolean authenticate, Map<String, String> requestHeaders) throws IOException 
 	{
 		// Stop early to protect limits?		
 		String resource = checkRateLimit(url);
 		// Build the full url
-		if (vars != null && vars.size() != 0) {
-			// add get variables
-			StringBuilder uri = new StringBuilder(url);
-			if (url.indexOf('?') == -1) {
-				uri.append("?");
-			} else if (!url.endsWith("&")) {
-				uri.append("&");
-			}
-			for (Entry e : vars.entrySet()) {
-				if (e.getValue() == null) {
-					continue;
-				}
-				String ek = InternalUtils.encode(e.getKey());
-				assert !url.contains(ek + "=") : url + " " + vars;
-				uri.append(ek + "=" + InternalUtils.encode(e.getValue()) + "&");
-			}
-			url = uri.toString();
-		}
+		url = getUrl(url, vars);
 		// Setup a connection
 		HttpURLConnection connection = (HttpURLConnection) new URL(url)
 				.openConnection();
@@ -146,6 +278,11 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		if (gzip) {
 			connection.setRequestProperty("Accept-Encoding", "gzip");
 		}
+		if (requestHeaders != null) {
+			for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+				connection.setRequestProperty(header.getKey(), header.getValue());
+			}
+		}
 		connection.setDoInput(true);
 		connection.setConnectTimeout(timeout);
 		connection.setReadTimeout(timeout);
@@ -156,6 +293,32 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		return connection;
 	}
 
+	/**
+	 * @return url with the vars added as GET parameters
+	 */
+	static String getUrl(String url, Map<String, String> vars) {
+		if (vars == null || vars.size() == 0) {
+			return url;
+		}
+		// add get variables
+		StringBuilder uri = new StringBuilder(url);
+		if (url.indexOf('?') == -1) {
+			uri.append("?");
+		} else if (!url.endsWith("&")) {
+			uri.append("&");
+		}
+		for (Entry e : vars.entrySet()) {
+			if (e.getValue() == null) {
+				continue;
+			}
+			int keyStart = uri.length();
+			InternalUtils.encode(e.getKey(), uri).append('=');
+			assert !url.contains(uri.substring(keyStart)) : url + " " + vars;
+			InternalUtils.encode(e.getValue(), uri).append('&');
+		}
+		return uri.toString();
+	}
+
 	@Override
 	public Twitter.IHttpClient copy() {
 		return clone();
@@ -175,7 +338,12 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 			c.setRetryOnError(retryOnError);
 			c.setTimeout(timeout);
 			c.setMinRateLimit(minRateLimit);
+			c.transport = transport; // Share the connection pool
+			c.cache = cache; // Share the cached responses
+			c.retryPolicy = retryPolicy; // Share the retry budget
+			c.circuitBreakers = circuitBreakers; // Share the breakers
 			c.rateLimits = rateLimits; // Share the rate limit info			
+			c.headers = new ThreadLocal<Map<String, List<String>>>();
 //			c.rateLimits.putAll(rateLimits); // Copy it			
 			return c;
 		} catch(CloneNotSupportedException ex) {
@@ -201,8 +369,25 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		}
 	}
 
+	/**
+	 * @return a header from the last response received <i>by the calling
+	 *         thread</i>. To get the headers of a specific call, use
+	 *         {@link #getPageResult(String, Map, boolean)}.
+	 */
 	@Override
 	public String getHeader(String headerName) {
+		return getHeader(headers().get(), headerName);
+	}
+
+	private ThreadLocal<Map<String, List<String>>> headers() {
+		// null after deserialisation
+		if (headers == null) {
+			headers = new ThreadLocal<Map<String, List<String>>>();
+		}
+		return headers;
+	}
+
+	static String getHeader(Map<String, List<String>> headers, String headerName) {
 		if (headers == null)
 			return null;		
 		List<String> vals = headers.get(headerName);
@@ -210,6 +395,14 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 			// Seen April 2014 -- lowercase X-Rate-Limit headers?!
 			vals = headers.get(headerName.toLowerCase());
 		}
+		if (vals==null) {
+			for (Entry<String, List<String>> e : headers.entrySet()) {
+				if (headerName.equalsIgnoreCase(e.getKey())) {
+					vals = e.getValue();
+					break;
+				}
+			}
+		}
 		return vals == null || vals.isEmpty() ? null : vals.get(0);
 	}
 
@@ -241,7 +434,7 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 				// FIXME remove any :id :slug stuff from res
 				JSONObject jrl = (JSONObject) family.getMap().get(res);
 				RateLimit rl = new RateLimit(jrl);
-				rateLimits.put(res, rl);
+				rateLimits.merge(res, rl, RateLimit::newer);
 			}
 		}		
 		
@@ -252,42 +445,221 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	@Override
 	public final String getPage(String url, Map<String, String> vars,
 			boolean authenticate) throws TwitterException 
+	{		
+		return getPageResult(url, vars, authenticate).getBody();
+	}
+
+	/**
+	 * As {@link #getPage(String, Map, boolean)}, but also returns the status,
+	 * headers, rate limit and timing of this particular call. Safe to use from
+	 * several threads at once.
+	 */
+	public final HttpResult getPageResult(String url, Map<String, String> vars,
+			boolean authenticate) throws TwitterException 
 	{		
 		assert url != null;
+		String key = cache == null ? null : HttpCache.key(getUrl(url, vars), authenticate);
+		if (key != null) {
+			HttpResult cached = cache.getFresh(key);
+			if (cached != null) return cached;
+		}
 		InternalUtils.count(url);
-		// This method handles the retry behaviour.
-		try {
-			// Do the actual work
-			String json = getPage2(url, vars, authenticate);
-			// ?? Test for and treat html as an error??
-			if (htmlImpliesError && 
-				(json.startsWith("<!DOCTYPE html") || json.startsWith("<html"))) {
-				// whitelist: sometimes we do expect html
-				if (url.startsWith("https://twitter.com")/*used by flush()*/) {
-					// OK
-				} else {
-					String meat = InternalUtils.stripTags(json);
-					throw new TwitterException.E50X(meat);
-				}
+		return retry(url, false, () -> getPage3(url, vars, authenticate, key));
+	}
+
+	/**
+	 * Handles the retry and circuit breaker behaviour.
+	 * 
+	 * @param post True for a POST, which is more cautiously retried
+	 * @param call Does the actual work
+	 */
+	private HttpResult retry(String url, boolean post, Callable<HttpResult> call) {
+		CircuitBreaker breaker = getCircuitBreaker(url);
+		retryPolicy.onRequest();
+		TwitterException first = null;
+		for (int attempt = 1; ; attempt++) {
+			TwitterException ex;
+			try {
+				if (breaker != null) breaker.acquire();
+			} catch (TwitterException.CircuitOpen e) {
+				throw first == null ? e : first;
 			}
-			return json;			
-		} catch (IOException e) {
-			if ( ! retryOnError) throw getPage2_ex(e, url);
 			try {
-				// wait half a second before retrying
-				Thread.sleep(500);
-				return getPage2(url, vars, authenticate);
-			} catch (Exception e2) {
-				throw getPage2_ex(e, url);
+				HttpResult result = call.call();
+				if (breaker != null) breaker.record(null);
+				return result;
+			} catch (Exception e) {
+				ex = getPage2_ex(e, url);
 			}
-		} catch (TwitterException.E50X e) {
-			if ( ! retryOnError) throw getPage2_ex(e, url);
+			if (breaker != null) breaker.record(ex);
+			if (first == null) first = ex;
+			if ( ! isRetry(ex, post, attempt)) throw first;
 			try {
-				// wait half a second before retrying
-				Thread.sleep(500);
-				return getPage2(url, vars, authenticate);
-			} catch (Exception e2) {
-				throw getPage2_ex(e, url);
+				Thread.sleep(retryPolicy.getDelayMillis(attempt));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw first;
+			}
+		}
+	}
+
+	private boolean isRetry(TwitterException ex, boolean post, int attempt) {
+		return retryOnError && attempt < retryPolicy.getMaxAttempts()
+				&& retryPolicy.isRetryable(ex, post) && retryPolicy.tryRetry();
+	}
+
+	/**
+	 * getPage2() via the cache (if there is one): conditional if we have a
+	 * cached response, and storing the response.
+	 * 
+	 * @param key From {@link HttpCache#key(String, boolean)}, or null if not
+	 * caching
+	 */
+	private HttpResult getPage3(String url, Map<String, String> vars,
+			boolean authenticate, String key) throws IOException {
+		if (key == null) {
+			HttpResult result = getPage2(url, vars, authenticate, null);
+			checkHtml(url, result.getBody());
+			return result;
+		}
+		HttpResult result = getPage2(url, vars, authenticate, cache.getValidators(key));
+		checkHtml(url, result.getBody());
+		HttpResult use = cache.received(key, result);
+		if (use != null) return use;
+		// Not modified -- but the cached copy has gone meanwhile. Ask again.
+		result = getPage2(url, vars, authenticate, null);
+		checkHtml(url, result.getBody());
+		return cache.received(key, result);
+	}
+
+	/**
+	 * Async version of {@link #getPage(String, Map, boolean)}, with the same
+	 * retry behaviour. Without a {@link #setTransport(HttpTransport)
+	 * transport} this just runs getPage() on the common pool.
+	 * 
+	 * @return a future which completes with the page, or with a
+	 *         TwitterException
+	 */
+	public CompletableFuture<String> getPageAsync(final String url,
+			final Map<String, String> vars, final boolean authenticate) {
+		if (transport == null) {
+			return CompletableFuture.supplyAsync(() -> getPage(url, vars, authenticate));
+		}
+		final String key = cache == null ? null : HttpCache.key(getUrl(url, vars), authenticate);
+		if (key != null) {
+			HttpResult cached = cache.getFresh(key);
+			if (cached != null) return CompletableFuture.completedFuture(cached.getBody());
+		}
+		InternalUtils.count(url);
+		return retryAsync(url, false, () -> transport.sendAsync(this, "GET", url, vars, authenticate,
+						key == null ? null : cache.getValidators(key))
+				.thenCompose(result -> {
+					checkHtml(url, result.getBody());
+					HttpResult use = key == null ? result : cache.received(key, result);
+					if (use != null) return CompletableFuture.completedFuture(use);
+					// Not modified -- but the cached copy has gone meanwhile
+					return transport.sendAsync(this, "GET", url, vars, authenticate, null)
+							.thenApply(result2 -> {
+								checkHtml(url, result2.getBody());
+								return cache.received(key, result2);
+							});
+				})
+				.thenApply(HttpResult::getBody));
+	}
+
+	/**
+	 * Async version of {@link #post(String, Map, boolean)}, with the same
+	 * retry behaviour.
+	 * 
+	 * @return a future which completes with the response, or with a
+	 *         TwitterException
+	 */
+	public CompletableFuture<String> postAsync(final String uri,
+			final Map<String, String> vars, final boolean authenticate) {
+		if (transport == null) {
+			return CompletableFuture.supplyAsync(() -> post(uri, vars, authenticate));
+		}
+		InternalUtils.count(uri);
+		return retryAsync(uri, true, () -> transport.sendAsync(this, "POST", uri, vars, true, null)
+				.thenApply(HttpResult::getBody));
+	}
+
+	/**
+	 * Async version of {@link #retry(String, boolean, Callable)}
+	 */
+	private CompletableFuture<String> retryAsync(final String url, final boolean post,
+			final Supplier<CompletableFuture<String>> call) {
+		CompletableFuture<String> result = new CompletableFuture<String>();
+		retryPolicy.onRequest();
+		retryAsync2(url, post, call, getCircuitBreaker(url), 1, null, result);
+		return result;
+	}
+
+	private void retryAsync2(final String url, final boolean post,
+			final Supplier<CompletableFuture<String>> call, final CircuitBreaker breaker,
+			final int attempt, final TwitterException first, final CompletableFuture<String> result) {
+		CompletableFuture<String> page;
+		try {
+			if (breaker != null) breaker.acquire();
+			page = call.get();
+		} catch (TwitterException.CircuitOpen e) {
+			result.completeExceptionally(first == null ? e : first);
+			return;
+		} catch (RuntimeException e) {
+			// eg. a pre-emptive rate limit
+			page = new CompletableFuture<String>();
+			page.completeExceptionally(e);
+		}
+		page.whenComplete((p, ex) -> {
+			TwitterException tex = ex == null ? null : getPage2_ex(unwrap(ex), url);
+			if (breaker != null) breaker.record(tex);
+			if (tex == null) {
+				result.complete(p);
+				return;
+			}
+			TwitterException first2 = first == null ? tex : first;
+			if ( ! isRetry(tex, post, attempt)) {
+				result.completeExceptionally(first2);
+				return;
+			}
+			RetryTimer.INSTANCE.schedule(
+					() -> retryAsync2(url, post, call, breaker, attempt + 1, first2, result),
+					retryPolicy.getDelayMillis(attempt), TimeUnit.MILLISECONDS);
+		});
+	}
+
+	/**
+	 * Waits out the delay before an async retry, without holding a thread.
+	 * Created on first use.
+	 */
+	private static final class RetryTimer {
+		static final ScheduledExecutorService INSTANCE = Executors
+				.newSingleThreadScheduledExecutor(r -> {
+					Thread thread = new Thread(r, "jtwitter-retry");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	private static Exception unwrap(Throwable ex) {
+		while (ex instanceof CompletionException && ex.getCause() != null) {
+			ex = ex.getCause();
+		}
+		return ex instanceof Exception ? (Exception) ex : new RuntimeException(ex);
+	}
+
+	/**
+	 * Test for and treat html as an error
+	 */
+	private void checkHtml(String url, String json) {
+		if (htmlImpliesError && 
+			(json.startsWith("<!DOCTYPE html") || json.startsWith("<html"))) {
+			// whitelist: sometimes we do expect html
+			if (url.startsWith("https://twitter.com")/*used by flush()*/) {
+				// OK
+			} else {
+				String meat = InternalUtils.stripTags(json);
+				throw new TwitterException.E50X(meat);
 			}
 		}
 	}
@@ -311,36 +683,56 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	 * @param url
 	 * @param vars
 	 * @param authenticate
-	 * @return page if successful
+	 * @param requestHeaders Extra headers, e.g. If-None-Match. Can be null.
+	 * @return page if successful (or not modified)
 	 * @throws IOException 
 	 */
-	private String getPage2(String url, Map<String, String> vars,
-			boolean authenticate) throws IOException {
+	private HttpResult getPage2(String url, Map<String, String> vars,
+			boolean authenticate, Map<String, String> requestHeaders) throws IOException {
+		if (transport != null) {
+			return transport.send(this, "GET", url, vars, authenticate, requestHeaders);
+		}
 		HttpURLConnection connection = null;
+		boolean ok = false;
+		long start = System.nanoTime();
 		try {
-			connection = connect(url, vars, authenticate);
+			connection = connect(url, vars, authenticate, requestHeaders);
 			InputStream inStream = connection.getInputStream();
 			// AZ: gunzip if twitter indicates it's gzipped content
 			// TODO Use this in streaming too (but see dev.twitter.com note about sub-classing!)
 			String contentEncoding = connection.getContentEncoding();
+			// Content-Length lets read() size its buffer up front
+			long size = connection.getContentLengthLong();
 			if ("gzip".equals(contentEncoding)) {
 				inStream = new GZIPInputStream(inStream);
+				size = -1;
 			}
-			// Read in the web page
-			String page = InternalUtils.read(inStream);
+			// Read in the web page (read() closes the stream, which hands
+			// the connection back to the keep-alive cache)
+			String page = InternalUtils.read(inStream, size);
 			// Done
-			return page;
+			ok = true;
+			return result(connection, url, start, page);
 		} catch(MalformedInputException ex) {
 			// provide some debug info
 			throw new IOException(ex+" enc:"+connection.getContentEncoding());
 		} finally {
-			disconnect(connection);
+			// disconnect() would close the socket, so only do it on failure
+			if ( ! ok) disconnect(connection);
 		}		
 	}
 
+	private static HttpResult result(HttpURLConnection connection, String url,
+			long start, String body) throws IOException {
+		Map<String, List<String>> connHeaders = connection.getHeaderFields();
+		return new HttpResult(url, connection.getResponseCode(), connHeaders,
+				RateLimit.getResource(url), RateLimit.fromHeaders(connHeaders),
+				(System.nanoTime() - start) / 1000000, body);
+	}
+
 	@Override
 	public RateLimit getRateLimit(KRequestType reqType) {
-		return rateLimits.get(reqType.rateLimit);
+		return reqType.rateLimit == null ? null : rateLimits.get(reqType.rateLimit);
 	}
 	
 
@@ -350,48 +742,41 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	@Override
 	public final String post(String uri, Map<String, String> vars,
 			boolean authenticate) throws TwitterException 
+	{		
+		return postResult(uri, vars, authenticate).getBody();
+	}
+
+	/**
+	 * As {@link #post(String, Map, boolean)}, but also returns the status,
+	 * headers, rate limit and timing of this particular call. Safe to use from
+	 * several threads at once.
+	 */
+	public final HttpResult postResult(String uri, Map<String, String> vars,
+			boolean authenticate) throws TwitterException 
 	{		
 		InternalUtils.count(uri);
-		try {
-			// do the actual work
-			String json = post2(uri, vars, authenticate);
-			// ?? Test for and treat html as an error??
-			return json;
-		} catch (TwitterException.E50X e) {
-			if ( ! retryOnError) throw getPage2_ex(e, uri);
-			try {
-				// wait half a second before retrying
-				Thread.sleep(500);
-				return post2(uri, vars, authenticate);
-			} catch (Exception e2) {
-				throw getPage2_ex(e, uri);
-			}
-		} catch (SocketTimeoutException e) {
-			if ( ! retryOnError) throw getPage2_ex(e, uri);
-			try {
-				// wait half a second before retrying
-				Thread.sleep(500);
-				return post2(uri, vars, authenticate);
-			} catch (Exception e2) {
-				throw getPage2_ex(e, uri);
-			}
-		} catch (Exception e) {
-			throw getPage2_ex(e, uri);
-		}
+		// ?? Test for and treat html as an error??
+		return retry(uri, true, () -> post2(uri, vars, authenticate));
 	}
 
-	private String post2(String uri, Map<String, String> vars,
+	private HttpResult post2(String uri, Map<String, String> vars,
 			boolean authenticate) throws Exception 
 	{
+		if (transport != null) {
+			return transport.send(this, "POST", uri, vars, true, null);
+		}
 		HttpURLConnection connection = null;
+		boolean ok = false;
+		long start = System.nanoTime();
 		try {
 			connection = post2_connect(uri, vars);
 			// Get the response
 			String response = InternalUtils.read(connection
-					.getInputStream());
-			return response;
+					.getInputStream(), connection.getContentLengthLong());
+			ok = true;
+			return result(connection, uri, start, response);
 		} finally {
-			disconnect(connection);
+			if ( ! ok) disconnect(connection);
 		}
 	}
 
@@ -426,6 +811,7 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 
 	protected String checkRateLimit(String url) {
 		String resource = RateLimit.getResource(url);
+		if (resource == null) return null;
 		RateLimit limit = rateLimits.get(resource);
 		
 		if (limit != null && limit.getRemaining() <= minRateLimit
@@ -457,12 +843,9 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 			}
 		}
 
-		for (String key : vars.keySet()) {
-			String val = InternalUtils.encode(vars.get(key));
-			encodedData.append(InternalUtils.encode(key));
-			encodedData.append('=');
-			encodedData.append(val);
-			encodedData.append('&');
+		for (Map.Entry<String, String> e : vars.entrySet()) {
+			InternalUtils.encode(e.getKey(), encodedData).append('=');
+			InternalUtils.encode(e.getValue(), encodedData).append('&');
 		}
 		encodedData.deleteCharAt(encodedData.length() - 1);
 		return encodedData.toString();
@@ -476,57 +859,15 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	 final void processError(HttpURLConnection connection, String resource) {
 		try {
 			int code = connection.getResponseCode();
-			if (code == 200)
+			// 304 is the answer to a conditional GET from the HttpCache
+			if (code == 200 || code == 304)
 				return;
 			URL url = connection.getURL();
+			Map<String, List<String>> connHeaders = connection.getHeaderFields();
 			// any explanation?
-			String error = processError2_reason(connection);
-			// which error?
-			if (code == 401) {
-				if (error.contains("Basic authentication is not supported"))
-					throw new TwitterException.UpdateToOAuth();
-				throw new TwitterException.E401(error + "\n" + url + " ("
-						+ (name == null ? "anonymous" : name) + ")");
-			}
-			if (code == 400 && error.startsWith("code 215")) {
-				// Twitter-error-code 215 "Bad Authentication data" uses http-code 400, though 401 makes more sense.
-				throw new TwitterException.E401(error);
-			}
-			if (code == 403) {
-				// separate out the 403 cases
-				processError2_403(connection, resource, url, error);
-			}
-			if (code == 404) {
-				// user deleted?
-				if (error != null && error.contains("deleted"))
-					// Note: This is a 403 exception
-					throw new TwitterException.SuspendedUser(error+ "\n"+ url);
-				throw new TwitterException.E404(url+" "+error);
-			}
-			if (code == 406)
-				// Hm: It might be nice to have info on post variables here 
-				throw new TwitterException.E406(error + "\n" + url);
-			if (code == 413)
-				throw new TwitterException.E413(error + "\n" + url);
-			if (code == 416)
-				throw new TwitterException.E416(error + "\n" + url);
-			if (code == 420)
-				throw new TwitterException.TooManyLogins(error + "\n" + url);
-			if (code >= 500 && code < 600)
-				throw new TwitterException.E50X(error + "\n" + url);
-
-			// Over the rate limit?
-			processError2_rateLimit(connection, resource, code, error);
-
-			// redirect??
-			if (code>299 && code<400) {
-				String locn = connection.getHeaderField("Location");
-				throw new TwitterException(code + " " + error + " " + url+" -> "+locn);
-			}
-			
-			// just report it as a vanilla exception
-			throw new TwitterException(code + " " + error + " " + url);
-
+			String error = processError2_reason(readErrorPage(connection),
+					connection.getResponseMessage(), connHeaders);
+			processError(code, url, error, connHeaders, resource);
 		} catch (SocketTimeoutException e) {
 			URL url = connection.getURL();
 			throw new TwitterException.Timeout(timeout + "milli-secs for "
@@ -544,9 +885,72 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		}
 	}
 
-	private String processError2_reason(HttpURLConnection connection) throws IOException {
+	/**
+	 * Throw the exception for a failed (non-200) response. This is the
+	 * transport-neutral part of {@link #processError(HttpURLConnection, String)}.
+	 * 
+	 * @param error
+	 *            the reason, from
+	 *            {@link #processError2_reason(String, String, Map)}
+	 */
+	final void processError(int code, URL url, String error,
+			Map<String, List<String>> connHeaders, String resource) {
+		// which error?
+		if (code == 401) {
+			if (error.contains("Basic authentication is not supported"))
+				throw new TwitterException.UpdateToOAuth();
+			throw new TwitterException.E401(error + "\n" + url + " ("
+					+ (name == null ? "anonymous" : name) + ")");
+		}
+		if (code == 400 && error.startsWith("code 215")) {
+			// Twitter-error-code 215 "Bad Authentication data" uses http-code 400, though 401 makes more sense.
+			throw new TwitterException.E401(error);
+		}
+		if (code == 403) {
+			// separate out the 403 cases
+			processError2_403(connHeaders, resource, url, error);
+		}
+		if (code == 404) {
+			// user deleted?
+			if (error != null && error.contains("deleted"))
+				// Note: This is a 403 exception
+				throw new TwitterException.SuspendedUser(error+ "\n"+ url);
+			throw new TwitterException.E404(url+" "+error);
+		}
+		if (code == 406)
+			// Hm: It might be nice to have info on post variables here 
+			throw new TwitterException.E406(error + "\n" + url);
+		if (code == 413)
+			throw new TwitterException.E413(error + "\n" + url);
+		if (code == 416)
+			throw new TwitterException.E416(error + "\n" + url);
+		if (code == 420)
+			throw new TwitterException.TooManyLogins(error + "\n" + url);
+		if (code >= 500 && code < 600)
+			throw new TwitterException.E50X(error + "\n" + url);
+
+		// Over the rate limit?
+		processError2_rateLimit(connHeaders, resource, code, error);
+
+		// redirect??
+		if (code>299 && code<400) {
+			String locn = getHeader(connHeaders, "Location");
+			throw new TwitterException(code + " " + error + " " + url+" -> "+locn);
+		}
+		
+		// just report it as a vanilla exception
+		throw new TwitterException(code + " " + error + " " + url);
+	}
+
+	/**
+	 * @param errorPage
+	 *            the body of the error response. Can be null
+	 * @param responseMessage
+	 *            the http reason phrase. Can be null (HTTP/2 has none)
+	 */
+	static String processError2_reason(String errorPage, String responseMessage,
+			Map<String, List<String>> connHeaders) {
 		// Try for a helpful message from Twitter
-		String errorPage = readErrorPage(connection);
 		if (errorPage != null) {
 			try {			
 				JSONObject je = new JSONObject(errorPage);
@@ -563,8 +967,7 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		}
 		
 		// normal error channels
-		String error = connection.getResponseMessage();
-		Map<String, List<String>> connHeaders = connection.getHeaderFields();
+		String error = responseMessage == null ? "" : responseMessage;
 		List<String> errorMessage = connHeaders.get(null);
 		if (errorMessage != null && !errorMessage.isEmpty()) {
 			error += "\n" + errorMessage.get(0);
@@ -582,7 +985,7 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	 * @param url
 	 * @param errorPage
 	 */
-	private void processError2_403(HttpURLConnection connection, String resource, URL url, String errorPage) throws TwitterException {
+	private void processError2_403(Map<String, List<String>> connHeaders, String resource, URL url, String errorPage) throws TwitterException {
 		// is this a "too old" exception?
 		String _name = name==null? "anon" : name;
 		if (errorPage == null) {
@@ -591,7 +994,7 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		// Rate limit?
 		if (errorPage.startsWith("code 185") || errorPage.contains("Wow, that's a lot of Twittering!")) {
 			// store the rate limit info
-			processHeaders(connection, resource);
+			processHeaders(connHeaders, resource);
 			throw new TwitterException.RateLimit(errorPage);
 		}
 		if (errorPage.contains("too old"))
@@ -618,13 +1021,13 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		throw new TwitterException.E403(errorPage + "\n" + url + " (" + _name+ ")");
 	}
 
-	private void processError2_rateLimit(HttpURLConnection connection, String resource,
+	private void processError2_rateLimit(Map<String, List<String>> connHeaders, String resource,
 			int code, String error) 
 	{
 		boolean rateLimitExceeded = error.contains("Rate limit exceeded");
 		if (rateLimitExceeded) {
 			// store the rate limit info
-			processHeaders(connection, resource);
+			processHeaders(connHeaders, resource);
 			throw new TwitterException.RateLimit(getName() + ": " + error);
 		}
 		// The Rate limiter can sometimes cause a 400 Bad Request
@@ -644,13 +1047,23 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	}
 
 	/**
-	 * Cache headers for {@link #getHeader(String)}
+	 * Cache headers for {@link #getHeader(String)} and update the rate limit
 	 * 
 	 * @param connection
+	 * @return the rate limit sent with the response, or null
 	 */
-	protected final void processHeaders(HttpURLConnection connection, String resource) {
-		headers = connection.getHeaderFields();
-		updateRateLimits(resource);
+	protected final RateLimit processHeaders(HttpURLConnection connection, String resource) {
+		return processHeaders(connection.getHeaderFields(), resource);
+	}
+
+	/**
+	 * Cache headers for {@link #getHeader(String)} and update the rate limit
+	 * 
+	 * @return the rate limit sent with the response, or null
+	 */
+	final RateLimit processHeaders(Map<String, List<String>> connHeaders, String resource) {
+		headers().set(connHeaders);
+		return updateRateLimits(connHeaders, resource);
 	}
 
 	static String readErrorPage(HttpURLConnection connection) {
@@ -709,6 +1122,18 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 		connection.setRequestProperty("Authorization", "Basic " + encoding);
 	}
 
+	/**
+	 * Set the authentication header on a request that isn't sent over an
+	 * HttpURLConnection (see {@link HttpTransport}).
+	 */
+	protected void setAuthentication(HttpRequest request) {
+		if (name==null || password==null) {
+			throw new TwitterException.E401("Authentication requested but no authorisation details are set!");
+		}
+		String encoding = Base64Encoder.encode(name + ":" + password);
+		request.setHeader("Authorization", "Basic " + encoding.replace("\r\n", ""));
+	}
+
 	/**
 	 * Use this to protect your Twitter API rate-limit. E.g. if you want to keep
 	 * some credit in reserve for core activity. 0 by default. 
@@ -721,8 +1146,18 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 
 	/**
 	 * False by default. Setting this to true switches on a robustness
-	 * workaround: when presented with a 50X server error, the system will wait
-	 * 1/2 a second and make a second attempt.
+	 * workaround: a call which hits a 50X server error (or, for a GET, a
+	 * network error) is tried again, as set by the {@link RetryPolicy}. By
+	 * default that is up to 3 attempts, waiting a random time of up to 0.5
+	 * then 1 second ("full jitter"), and at most one retry per 5 requests
+	 * (with up to 10 saved up), so that retries can't multiply the load
+	 * during an outage.
+	 * <p>
+	 * Whether or not this is on, a {@link CircuitBreaker} per resource fails
+	 * calls fast after 5 consecutive errors, for 30 seconds. See
+	 * {@link #setCircuitBreaker(int, long)}.
+	 * 
+	 * @see #setRetryPolicy(RetryPolicy)
 	 */
 	@Override
 	public void setRetryOnError(boolean retryOnError) {
@@ -741,17 +1176,17 @@ public class URLConnectionHttpClient implements Twitter.IHttpClient,
 	}
 
 	/**
-	 * {@link #processHeaders(HttpURLConnection)} MUST have been called first.
+	 * Record the rate limit sent with a response. Responses can arrive out of
+	 * order when threads share this client, so an older limit never replaces
+	 * a newer one.
+	 * 
+	 * @return the rate limit sent with the response, or null
 	 */
-	void updateRateLimits(String resource) {
-		if (resource==null) return;
-		String limit = getHeader("X-Rate-Limit-Limit");		
-		if (limit == null) {
-			return;
-		}
-		String remaining = getHeader("X-Rate-Limit-Remaining");
-		String reset = getHeader("X-Rate-Limit-Reset");
-		rateLimits.put(resource, new RateLimit(limit, remaining, reset));		
+	RateLimit updateRateLimits(Map<String, List<String>> connHeaders, String resource) {
+		RateLimit rateLimit = RateLimit.fromHeaders(connHeaders);
+		if (resource==null || rateLimit==null) return rateLimit;
+		rateLimits.merge(resource, rateLimit, RateLimit::newer);
+		return rateLimit;
 	}
 
 }
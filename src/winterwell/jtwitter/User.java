@@ -41,6 +41,7 @@ public final class User implements Serializable {
 		for (int i = 0; i < arr.length(); i++) {
 			JSONObject obj = arr.getJSONObject(i);
 			User u = new User(obj, null);
+			UserCache.getShared().put(u);
 			users.add(u);
 		}
 		return users;
@@ -307,6 +308,45 @@ public final class User implements Serializable {
 		listedCount = -1;
 	}
 
+	/**
+	 * A copy of user for {@link UserCache} to share. It leaves out the user's
+	 * status, and the relationship info (isFollowedByYou etc.), which is
+	 * about whichever account fetched the user.
+	 */
+	User(User user) {
+		id = user.id;
+		name = user.name;
+		screenName = user.screenName;
+		status = null;
+		location = user.location;
+		place = user.place;
+		lang = user.lang;
+		description = user.description;
+		profileImageUrl = user.profileImageUrl;
+		website = user.website;
+		protectedUser = user.protectedUser;
+		followersCount = user.followersCount;
+		profileBackgroundColor = user.profileBackgroundColor;
+		profileLinkColor = user.profileLinkColor;
+		profileTextColor = user.profileTextColor;
+		profileSidebarFillColor = user.profileSidebarFillColor;
+		profileSidebarBorderColor = user.profileSidebarBorderColor;
+		friendsCount = user.friendsCount;
+		createdAt = user.createdAt;
+		favoritesCount = user.favoritesCount;
+		timezoneOffSet = user.timezoneOffSet;
+		timezone = user.timezone;
+		profileBackgroundImageUrl = user.profileBackgroundImageUrl;
+		profileBackgroundTile = user.profileBackgroundTile;
+		statusesCount = user.statusesCount;
+		notifications = false;
+		verified = user.verified;
+		followedByYou = null;
+		followingYou = null;
+		followRequestSent = false;
+		listedCount = user.listedCount;
+	}
+
 	@Override
 	public boolean equals(Object other) {
 		if (this == other)
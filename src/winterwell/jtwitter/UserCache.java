@@ -0,0 +1,252 @@
+package winterwell.jtwitter;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import winterwell.json.JSONException;
+import winterwell.json.JSONObject;
+
+/**
+ * A bounded cache of {@link User}s, shared by timelines, mentions, messages and
+ * searches. An author who turns up in 200 statuses is then one User object
+ * rather than 200, and {@link Twitter_Users#show(Number)},
+ * {@link Twitter_Users#show(String)} and
+ * {@link Twitter_Users#showById(java.util.Collection)} can often answer
+ * without a call.
+ * <p>
+ * Users are looked up by id or by screen name (case-insensitive). Entries
+ * expire after a time-to-live. Before then, a copy of the user whose counts,
+ * names or picture differ from the cached one (e.g. a fresh follower count)
+ * replaces it. The least recently used entries are dropped once the cache is
+ * full.
+ * <p>
+ * The cache is shared by every account, so it holds copies of users without
+ * their {@link User#status} or relationship info (isFollowedByYou etc.):
+ * these are null / false for users served from the cache. Use
+ * {@link Twitter_Users#getRelationshipInfo(java.util.List)} for relationship info.
+ * <p>
+ * Thread safe. By default one cache is shared by all Twitter objects.
+ *
+ * @see #getShared()
+ */
+public final class UserCache {
+
+	private static volatile UserCache shared = new UserCache(10000,
+			TimeUnit.MINUTES.toMillis(15));
+
+	/**
+	 * @return the cache used by the library
+	 */
+	public static UserCache getShared() {
+		return shared;
+	}
+
+	/**
+	 * @param cache
+	 *            The cache for the library to use. E.g.
+	 *            <code>new UserCache(0, 0)</code> switches caching off.
+	 */
+	public static void setShared(UserCache cache) {
+		if (cache == null)
+			throw new NullPointerException();
+		shared = cache;
+	}
+
+	private static final class Entry {
+		final User user;
+		final long expires;
+
+		Entry(User user, long expires) {
+			this.user = user;
+			this.expires = expires;
+		}
+	}
+
+	private final int maxSize;
+
+	private final long ttlNanos;
+
+	/**
+	 * Lower-cased screen-name to id. Kept in step with byId.
+	 */
+	private final Map<String, Long> byName = new HashMap<String, Long>();
+
+	/**
+	 * In access order, for least-recently-used eviction.
+	 */
+	private final LinkedHashMap<Long, Entry> byId;
+
+	private long hits;
+
+	private long misses;
+
+	/**
+	 * @param maxSize
+	 *            The most users to hold. 0 switches caching off.
+	 * @param ttlMillis
+	 *            How long a user is served from the cache before it must be
+	 *            seen afresh.
+	 */
+	@SuppressWarnings("serial")
+	public UserCache(final int maxSize, long ttlMillis) {
+		this.maxSize = maxSize;
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.byId = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Long, UserCache.Entry> eldest) {
+				if (size() <= maxSize)
+					return false;
+				removeName(eldest.getValue().user);
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * @return the cached user, or null if not cached (or expired)
+	 */
+	public synchronized User get(long userId) {
+		Entry e = byId.get(userId);
+		if (e != null && e.expires - System.nanoTime() < 0) {
+			byId.remove(userId);
+			removeName(e.user);
+			e = null;
+		}
+		if (e == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return e.user;
+	}
+
+	/**
+	 * @return the cached user, or null if not cached (or expired)
+	 */
+	public synchronized User get(String screenName) {
+		Long id = byName.get(screenName.toLowerCase());
+		if (id == null) {
+			misses++;
+			return null;
+		}
+		return get(id);
+	}
+
+	/**
+	 * Cache a copy of the user (without their status or relationship info),
+	 * replacing any cached copy. Dummy users (without an id and screen-name)
+	 * are not cached.
+	 *
+	 * @return user, unchanged
+	 */
+	public User put(User user) {
+		store(user);
+		return user;
+	}
+
+	/**
+	 * @return the cached copy of the user in this json, if there is one and
+	 *         the json doesn't hold newer info, else a new copy (which is then
+	 *         cached).
+	 */
+	User intern(JSONObject json) throws JSONException {
+		User cached = get(json.getLong("id"));
+		if (cached != null && !changed(cached, json))
+			return cached;
+		return store(new User(json, null));
+	}
+
+	/**
+	 * @return the copy of user held by the cache, or user itself if it can't
+	 *         be cached
+	 */
+	private synchronized User store(User user) {
+		if (user.id == null || user.screenName == null || maxSize < 1)
+			return user;
+		User copy = new User(user);
+		Entry old = byId.put(user.id, new Entry(copy, System.nanoTime()
+				+ ttlNanos));
+		if (old != null) {
+			// screen-names can change
+			removeName(old.user);
+		}
+		byName.put(user.screenName.toLowerCase(), user.id);
+		return copy;
+	}
+
+	/**
+	 * A cheap check for a newer copy of the user: counts, names and picture.
+	 */
+	private static boolean changed(User cached, JSONObject json) {
+		if (json.optInt("statuses_count") != cached.statusesCount
+				|| json.optInt("followers_count") != cached.followersCount
+				|| json.optInt("friends_count") != cached.friendsCount
+				|| json.optInt("favourites_count") != cached.favoritesCount
+				|| json.optInt("listed_count", -1) != cached.listedCount)
+			return true;
+		String sn = InternalUtils.jsonGet("screen_name", json);
+		if (sn == null || !sn.equalsIgnoreCase(cached.screenName))
+			return true;
+		String name = InternalUtils.unencode(InternalUtils.jsonGet("name",
+				json));
+		if (name == null ? cached.name != null : !name.equals(cached.name))
+			return true;
+		String img = InternalUtils.jsonGet("profile_image_url", json);
+		URI cachedImg = cached.profileImageUrl;
+		return img == null ? cachedImg != null : cachedImg == null
+				|| !img.equals(cachedImg.toString());
+	}
+
+	/**
+	 * Forget a user, e.g. because their follower count is about to change.
+	 */
+	public synchronized void remove(String screenName) {
+		Long id = byName.get(screenName.toLowerCase());
+		Entry e = id == null ? null : byId.remove(id);
+		if (e != null) {
+			removeName(e.user);
+		}
+	}
+
+	public synchronized void clear() {
+		byId.clear();
+		byName.clear();
+	}
+
+	public synchronized int size() {
+		return byId.size();
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return hits / lookups, or 0 if there have been none
+	 */
+	public synchronized double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : hits / (double) lookups;
+	}
+
+	private void removeName(User user) {
+		String name = user.screenName.toLowerCase();
+		if (user.id.equals(byName.get(name))) {
+			byName.remove(name);
+		}
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "UserCache[size:" + byId.size() + " hits:" + hits + " misses:"
+				+ misses + "]";
+	}
+}